@@ -0,0 +1,77 @@
+package gym_management_system.benchmarks;
+
+import gym_management_system.Member;
+import gym_management_system.MemberManager;
+import gym_management_system.Workout;
+import gym_management_system.WorkoutManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Several check-in terminals recording workouts while others look up members and
+// history against the same managers. Teardown verifies no workout was lost or duplicated.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentWorkoutBenchmark {
+    private static final int MEMBERS = 10_000;
+
+    private Path dir;
+    private MemberManager memberManager;
+    private WorkoutManager workoutManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = DataGenerator.writeDataSet(MEMBERS, 100_000);
+        memberManager = new MemberManager();
+        workoutManager = new WorkoutManager(memberManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        List<Workout> workouts = workoutManager.getWorkouts();
+        Set<Integer> ids = new HashSet<>();
+        for (Workout workout : workouts) {
+            if (!ids.add(workout.getId())) {
+                throw new IllegalStateException("Duplicate workout ID " + workout.getId());
+            }
+        }
+        workoutManager.close();
+        memberManager.close();
+        if (new WorkoutManager(new MemberManager()).getWorkouts().size() != workouts.size()) {
+            throw new IllegalStateException("Journal lost workouts under concurrent appends");
+        }
+        DataGenerator.delete(dir);
+    }
+
+    @Benchmark
+    @Group("checkIn")
+    @GroupThreads(4)
+    public void recordWorkout() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        workoutManager.recordWorkout(1 + random.nextInt(MEMBERS),
+                DataGenerator.EXERCISES[random.nextInt(DataGenerator.EXERCISES.length)], 2);
+    }
+
+    @Benchmark
+    @Group("checkIn")
+    @GroupThreads(2)
+    public Member getMember() {
+        return memberManager.getMember(1 + ThreadLocalRandom.current().nextInt(MEMBERS));
+    }
+
+    @Benchmark
+    @Group("checkIn")
+    @GroupThreads(2)
+    public int getWorkoutCount() {
+        return workoutManager.getWorkoutCount(1 + ThreadLocalRandom.current().nextInt(MEMBERS));
+    }
+}
@@ -0,0 +1,81 @@
+package gym_management_system.benchmarks;
+
+import gym_management_system.DataStorage;
+import gym_management_system.Member;
+import gym_management_system.Workout;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Builds deterministic synthetic data sets and writes them with DataStorage
+public class DataGenerator {
+    private static final String[] FIRST_NAMES = {
+        "sajal", "akash", "kunal", "devansh", "priya", "rahul", "neha", "arjun", "meera", "vikram"
+    };
+    private static final String[] MEMBERSHIP_TYPES = { "Gold", "Silver", "Bronze" };
+    static final String[] EXERCISES = {
+        "bench", "squat", "deadlift", "overhead press", "row", "pull up", "lunge", "curl", "dip", "plank"
+    };
+
+    public static List<Member> members(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        List<Member> members = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + id;
+            Member member = new Member(id, name, 16 + random.nextInt(60),
+                    MEMBERSHIP_TYPES[random.nextInt(MEMBERSHIP_TYPES.length)]);
+            member.setHeight(1.5 + random.nextInt(50) / 100.0);
+            member.setWeight(50 + random.nextInt(70));
+            member.setJoinDate(today.minusDays(random.nextInt(1500)).toString());
+            if (random.nextInt(10) == 0) {
+                member.setStatus("Inactive");
+            }
+            members.add(member);
+        }
+        return members;
+    }
+
+    public static List<Workout> workouts(int count, int memberCount, long seed) {
+        Random random = new Random(seed);
+        long startDay = LocalDate.now().minusDays(730).toEpochDay();
+        List<Workout> workouts = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            // Days advance with IDs, as they do when workouts are recorded live
+            int day = (int) (startDay + (long) id * 730 / count);
+            workouts.add(new Workout(id, 1 + random.nextInt(memberCount),
+                    EXERCISES[random.nextInt(EXERCISES.length)], 1 + random.nextInt(5), day));
+        }
+        return workouts;
+    }
+
+    // Creates a fresh data directory, points DataStorage at it and writes both files
+    public static Path writeDataSet(int memberCount, int workoutCount) {
+        try {
+            Path dir = Files.createTempDirectory("gym-bench");
+            System.setProperty("gym.data.dir", dir.toString());
+            DataStorage.saveMembers(members(memberCount, 42));
+            DataStorage.saveWorkouts(workouts(workoutCount, memberCount, 43));
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void delete(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
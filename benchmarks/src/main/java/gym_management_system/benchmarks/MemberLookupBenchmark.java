@@ -0,0 +1,42 @@
+package gym_management_system.benchmarks;
+
+import gym_management_system.Member;
+import gym_management_system.MemberManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberLookupBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int members;
+
+    private Path dir;
+    private MemberManager memberManager;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = DataGenerator.writeDataSet(members, 0);
+        memberManager = new MemberManager();
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        memberManager.close();
+        DataGenerator.delete(dir);
+    }
+
+    @Benchmark
+    public Member getMember() {
+        return memberManager.getMember(1 + random.nextInt(members));
+    }
+}
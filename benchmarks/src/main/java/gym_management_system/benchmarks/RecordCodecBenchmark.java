@@ -0,0 +1,83 @@
+package gym_management_system.benchmarks;
+
+import gym_management_system.Member;
+import gym_management_system.RecordBuffer;
+import gym_management_system.TextStorageCodec;
+import gym_management_system.Workout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-record cost of formatting and parsing text records. Run with -prof gc: the
+// gc.alloc.rate.norm of the format and parse benchmarks should be ~0 B/op, against the
+// String.format based rendering the records used before.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordCodecBenchmark {
+    private static final int RECORDS = 1024;
+
+    private List<Member> members;
+    private List<Workout> workouts;
+    private final RecordBuffer buffer = new RecordBuffer(64 * 1024);
+    private byte[] height;
+    private byte[] weight;
+    private byte[] date;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        members = DataGenerator.members(RECORDS, 42);
+        workouts = DataGenerator.workouts(RECORDS, RECORDS / 10, 43);
+        height = "1.82".getBytes();
+        weight = "77.5".getBytes();
+        date = "2025-04-26".getBytes();
+    }
+
+    @Benchmark
+    public int formatMemberRecord() {
+        buffer.clear();
+        TextStorageCodec.writeMember(buffer, members.get(next++ & (RECORDS - 1)));
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int formatWorkoutRecord() {
+        buffer.clear();
+        TextStorageCodec.writeWorkout(buffer, workouts.get(next++ & (RECORDS - 1)));
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int renderMemberDetails() {
+        buffer.clear();
+        members.get(next++ & (RECORDS - 1)).appendTo(buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public double parseMemberNumbers() {
+        return RecordBuffer.parseDouble(height, 0, height.length)
+                + RecordBuffer.parseDouble(weight, 0, weight.length)
+                + RecordBuffer.parseDate(date, 0, date.length);
+    }
+
+    // The rendering Member.toString did with String.format, for comparison
+    @Benchmark
+    public String renderMemberDetailsWithFormat() {
+        Member member = members.get(next++ & (RECORDS - 1));
+        return "Member ID: " + member.getId() + "\n" +
+               "Name: " + member.getName() + "\n" +
+               "Age: " + member.getAge() + "\n" +
+               "Membership Type: " + member.getMembershipType() + "\n" +
+               "Height: " + String.format("%.2f", member.getHeight()) + "m\n" +
+               "Weight: " + String.format("%.2f", member.getWeight()) + "kg\n" +
+               "BMI: " + String.format("%.2f", member.getBMI()) + " (" + member.getBMIStatus() + ")\n" +
+               "Join Date: " + member.getJoinDate() + "\n" +
+               "Status: " + member.getStatus();
+    }
+}
@@ -0,0 +1,67 @@
+package gym_management_system.benchmarks;
+
+import gym_management_system.DataStorage;
+import gym_management_system.Member;
+import gym_management_system.Workout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StorageBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private Path dir;
+    private List<Member> members;
+    private List<Workout> workouts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Members are scaled down so the 1M row case stays a realistic gym-to-history ratio
+        dir = DataGenerator.writeDataSet(Math.max(1, rows / 10), rows);
+        members = DataGenerator.members(rows, 42);
+        workouts = DataGenerator.workouts(rows, Math.max(1, rows / 10), 43);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataGenerator.delete(dir);
+    }
+
+    @Benchmark
+    public List<Member> loadMembers() {
+        return DataStorage.loadMembers();
+    }
+
+    @Benchmark
+    public void saveMembers() {
+        DataStorage.saveMembers(members);
+    }
+
+    @Benchmark
+    public List<Workout> loadWorkouts() {
+        return DataStorage.loadWorkouts();
+    }
+
+    // Forces every row to be decoded, for comparison with the lazy load above
+    @Benchmark
+    public void loadAndReadWorkouts(Blackhole blackhole) {
+        for (Workout workout : DataStorage.loadWorkouts()) {
+            blackhole.consume(workout.getExercise());
+        }
+    }
+
+    @Benchmark
+    public void saveWorkouts() {
+        DataStorage.saveWorkouts(workouts);
+    }
+}
@@ -0,0 +1,53 @@
+package gym_management_system.benchmarks;
+
+import gym_management_system.MemberManager;
+import gym_management_system.WorkoutManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkoutBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private Path dir;
+    private MemberManager memberManager;
+    private WorkoutManager workoutManager;
+    private SplittableRandom random;
+    private int memberCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memberCount = Math.max(1, rows / 100);
+        dir = DataGenerator.writeDataSet(memberCount, rows);
+        memberManager = new MemberManager();
+        workoutManager = new WorkoutManager(memberManager);
+        random = new SplittableRandom(11);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workoutManager.close();
+        memberManager.close();
+        DataGenerator.delete(dir);
+    }
+
+    @Benchmark
+    public void recordWorkout() {
+        workoutManager.recordWorkout(1 + random.nextInt(memberCount),
+                DataGenerator.EXERCISES[random.nextInt(DataGenerator.EXERCISES.length)], 3);
+    }
+
+    @Benchmark
+    public String getWorkoutHistory() {
+        return workoutManager.getWorkoutHistory(1 + random.nextInt(memberCount));
+    }
+}
@@ -0,0 +1,149 @@
+package gym_management_system;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+// Compact binary format: a magic/version header and record count, followed by
+// fixed-width numeric fields, length-prefixed UTF-8 strings and epoch-day dates.
+// Since version 2 workout exercises are dictionary encoded: each record stores a small
+// file-local code, and the name follows only on the first record that uses the code.
+public class BinaryStorageCodec implements StorageCodec {
+    private static final int MAGIC = 0x47594D42; // "GYMB"
+    private static final short VERSION = 2;
+    private static final short INLINE_EXERCISE_VERSION = 1;
+    private static final byte MEMBER_RECORDS = 1;
+    private static final byte WORKOUT_RECORDS = 2;
+
+    @Override
+    public String getFileExtension() {
+        return ".dat";
+    }
+
+    @Override
+    public void writeMembers(List<Member> members, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        writeHeader(data, MEMBER_RECORDS, members.size());
+        for (Member member : members) {
+            data.writeInt(member.getId());
+            data.writeUTF(member.getName());
+            data.writeInt(member.getAge());
+            data.writeUTF(member.getMembershipType());
+            data.writeDouble(member.getHeight());
+            data.writeDouble(member.getWeight());
+            data.writeInt((int) LocalDate.parse(member.getJoinDate()).toEpochDay());
+            data.writeUTF(member.getStatus());
+        }
+        data.flush();
+    }
+
+    @Override
+    public void readMembers(InputStream in, List<Member> members) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        int count = readHeader(data, MEMBER_RECORDS);
+        for (int i = 0; i < count; i++) {
+            int id = data.readInt();
+            String name = data.readUTF();
+            int age = data.readInt();
+            String membershipType = data.readUTF();
+            double height = data.readDouble();
+            double weight = data.readDouble();
+            int joinEpochDay = data.readInt();
+            String status = data.readUTF();
+
+            Member member = new Member(id, name, age, membershipType);
+            member.setHeight(height);
+            member.setWeight(weight);
+            member.setJoinDate(LocalDate.ofEpochDay(joinEpochDay).toString());
+            member.setStatus(status);
+            members.add(member);
+        }
+    }
+
+    @Override
+    public void writeWorkouts(List<Workout> workouts, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        writeHeader(data, WORKOUT_RECORDS, workouts.size());
+        int[] codes = new int[Math.max(16, ExerciseCatalog.size())];
+        Arrays.fill(codes, -1);
+        int nextCode = 0;
+        for (Workout workout : workouts) {
+            data.writeInt(workout.getId());
+            data.writeInt(workout.getMemberId());
+            int exerciseId = workout.getExerciseId();
+            if (exerciseId >= codes.length) {
+                int oldLength = codes.length;
+                codes = Arrays.copyOf(codes, Math.max(exerciseId + 1, oldLength * 2));
+                Arrays.fill(codes, oldLength, codes.length, -1);
+            }
+            if (codes[exerciseId] < 0) {
+                codes[exerciseId] = nextCode++;
+                data.writeInt(codes[exerciseId]);
+                data.writeUTF(workout.getExercise());
+            } else {
+                data.writeInt(codes[exerciseId]);
+            }
+            data.writeInt(workout.getSets());
+            data.writeInt(workout.getEpochDay());
+        }
+        data.flush();
+    }
+
+    @Override
+    public void readWorkouts(InputStream in, List<Workout> workouts) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        short version = readVersion(data);
+        int count = readCount(data, WORKOUT_RECORDS);
+        IntList exerciseIds = new IntList(); // file code -> catalog ID
+        for (int i = 0; i < count; i++) {
+            int id = data.readInt();
+            int memberId = data.readInt();
+            int exerciseId;
+            if (version == INLINE_EXERCISE_VERSION) {
+                exerciseId = ExerciseCatalog.idOf(data.readUTF());
+            } else {
+                int code = data.readInt();
+                if (code == exerciseIds.size()) {
+                    exerciseIds.add(ExerciseCatalog.idOf(data.readUTF()));
+                } else if (code < 0 || code > exerciseIds.size()) {
+                    throw new IOException("Invalid exercise code " + code + " in workout " + id);
+                }
+                exerciseId = exerciseIds.get(code);
+            }
+            int sets = data.readInt();
+            int epochDay = data.readInt();
+            workouts.add(new Workout(id, memberId, exerciseId, sets, epochDay));
+        }
+    }
+
+    private static void writeHeader(DataOutputStream data, byte recordType, int count) throws IOException {
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeByte(recordType);
+        data.writeInt(count);
+    }
+
+    private static int readHeader(DataInputStream data, byte recordType) throws IOException {
+        readVersion(data);
+        return readCount(data, recordType);
+    }
+
+    private static short readVersion(DataInputStream data) throws IOException {
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a gym data file");
+        }
+        short version = data.readShort();
+        if (version != VERSION && version != INLINE_EXERCISE_VERSION) {
+            throw new IOException("Unsupported data file version: " + version);
+        }
+        return version;
+    }
+
+    private static int readCount(DataInputStream data, byte recordType) throws IOException {
+        if (data.readByte() != recordType) {
+            throw new IOException("Data file holds a different record type");
+        }
+        return data.readInt();
+    }
+}
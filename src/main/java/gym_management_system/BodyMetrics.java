@@ -0,0 +1,175 @@
+package gym_management_system;
+
+// Running summary of one member's height and weight measurements. Each measurement updates
+// it in constant time, so progress reports never go back over the history.
+public class BodyMetrics {
+    // The moving averages cover this many of the latest measurements
+    public static final int WINDOW = 7;
+
+    private int count;
+    private int firstDay;
+    private int lastDay;
+    private double height; // latest, in meters
+    private double weight; // latest, in kg
+    private final Trend weightTrend;
+    private final Trend bmiTrend;
+
+    public BodyMetrics() {
+        weightTrend = new Trend();
+        bmiTrend = new Trend();
+    }
+
+    private BodyMetrics(BodyMetrics other) {
+        count = other.count;
+        firstDay = other.firstDay;
+        lastDay = other.lastDay;
+        height = other.height;
+        weight = other.weight;
+        weightTrend = new Trend(other.weightTrend);
+        bmiTrend = new Trend(other.bmiTrend);
+    }
+
+    // Measurements must be added in date order
+    public void add(int epochDay, double height, double weight) {
+        if (count == 0) {
+            firstDay = epochDay;
+        }
+        count++;
+        lastDay = epochDay;
+        this.height = height;
+        this.weight = weight;
+        weightTrend.add(epochDay - firstDay, weight);
+        bmiTrend.add(epochDay - firstDay, bmi(height, weight));
+    }
+
+    public BodyMetrics copy() {
+        return new BodyMetrics(this);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getFirstEpochDay() {
+        return firstDay;
+    }
+
+    public int getLastEpochDay() {
+        return lastDay;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public double getBMI() {
+        return bmi(height, weight);
+    }
+
+    public Trend getWeightTrend() {
+        return weightTrend;
+    }
+
+    public Trend getBMITrend() {
+        return bmiTrend;
+    }
+
+    public void appendTo(RecordBuffer buffer) {
+        buffer.append("Measurements: ").append(count);
+        if (count == 0) {
+            return;
+        }
+        buffer.append(" (").appendDate(firstDay).append(" to ").appendDate(lastDay).append(")\n");
+        buffer.append("Weight: ");
+        weightTrend.appendTo(buffer, "kg");
+        buffer.append("\nBMI: ");
+        bmiTrend.appendTo(buffer, "");
+    }
+
+    @Override
+    public String toString() {
+        RecordBuffer buffer = new RecordBuffer(256);
+        appendTo(buffer);
+        return buffer.toString();
+    }
+
+    private static double bmi(double height, double weight) {
+        return height > 0 ? weight / (height * height) : 0;
+    }
+
+    // Extremes, moving average and least-squares slope per day of one measured value. The
+    // slope is kept as running means and co-moments (Welford), which stay accurate however
+    // long the history grows.
+    public static final class Trend {
+        private final double[] recent;
+        private int count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double meanDay;
+        private double meanValue;
+        private double dayValueMoment;
+        private double dayMoment;
+
+        Trend() {
+            recent = new double[WINDOW];
+        }
+
+        Trend(Trend other) {
+            recent = other.recent.clone();
+            count = other.count;
+            min = other.min;
+            max = other.max;
+            meanDay = other.meanDay;
+            meanValue = other.meanValue;
+            dayValueMoment = other.dayValueMoment;
+            dayMoment = other.dayMoment;
+        }
+
+        void add(int day, double value) {
+            recent[count % WINDOW] = value;
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            double dayDelta = day - meanDay;
+            meanDay += dayDelta / count;
+            meanValue += (value - meanValue) / count;
+            dayValueMoment += dayDelta * (value - meanValue);
+            dayMoment += dayDelta * (day - meanDay);
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        // Average of the last WINDOW values (fewer while there are fewer)
+        public double getMovingAverage() {
+            int n = Math.min(count, WINDOW);
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += recent[i];
+            }
+            return n > 0 ? sum / n : 0;
+        }
+
+        // Change per day of the line best fitting the values; 0 until two days are measured
+        public double getSlopePerDay() {
+            return dayMoment > 0 ? dayValueMoment / dayMoment : 0;
+        }
+
+        void appendTo(RecordBuffer buffer, String unit) {
+            double perMonth = getSlopePerDay() * 30;
+            buffer.append("min ").appendFixed(min, 2).append(unit)
+                  .append(", max ").appendFixed(max, 2).append(unit)
+                  .append(", average of last ").append(Math.min(count, WINDOW)).append(' ').appendFixed(getMovingAverage(), 2).append(unit)
+                  .append(", trend ").append(perMonth >= 0 ? "+" : "").appendFixed(perMonth, 2).append(unit).append(" per 30 days");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package gym_management_system;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// Append-only history of height and weight measurements in body_metrics.dat. Records are a
+// fixed 16 bytes: member ID, epoch day, height in tenths of a millimetre and weight in
+// grams, all ints. The file is read once, on first use, into a BodyMetrics summary per
+// member; after that each measurement only updates its member's summary and appends one
+// record. A torn record at the end of the file (after a crash) is cut off when reading.
+public class BodyMetricsLog {
+    private static final String FILE = "body_metrics.dat";
+    private static final int RECORD_SIZE = 16;
+    private static final double HEIGHT_UNITS = 10_000; // per meter
+    private static final double WEIGHT_UNITS = 1_000; // per kg
+
+    private final File file = DataStorage.dataFile(FILE);
+    private IntObjectMap<BodyMetrics> byMember; // loaded on first use
+
+    // Adds the measurement to the member's summary and returns the record to append
+    public synchronized ByteBuffer add(int memberId, int epochDay, double height, double weight) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putInt(memberId).putInt(epochDay)
+              .putInt((int) Math.round(height * HEIGHT_UNITS))
+              .putInt((int) Math.round(weight * WEIGHT_UNITS))
+              .flip();
+        summaryOf(memberId, true).add(epochDay, decodeHeight(record.getInt(8)), decodeWeight(record.getInt(12)));
+        return record;
+    }
+
+    // Appends records returned by add, in the order they were added
+    public void append(ByteBuffer record) {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            Metrics.BYTES_WRITTEN.add(RECORD_SIZE);
+        } catch (IOException e) {
+            System.err.println("Error saving body measurements: " + e.getMessage());
+            Metrics.WRITE_FAILURES.increment();
+        }
+    }
+
+    // A copy of the member's summary, or null if they were never measured
+    public synchronized BodyMetrics get(int memberId) {
+        BodyMetrics metrics = summaryOf(memberId, false);
+        return metrics != null ? metrics.copy() : null;
+    }
+
+    private BodyMetrics summaryOf(int memberId, boolean create) {
+        if (byMember == null) {
+            byMember = load();
+        }
+        BodyMetrics metrics = byMember.get(memberId);
+        if (metrics == null && create) {
+            metrics = new BodyMetrics();
+            byMember.put(memberId, metrics);
+        }
+        return metrics;
+    }
+
+    private IntObjectMap<BodyMetrics> load() {
+        IntObjectMap<BodyMetrics> loaded = new IntObjectMap<>();
+        if (!file.exists()) {
+            return loaded;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long complete = channel.size() - channel.size() % RECORD_SIZE;
+            if (complete < channel.size()) {
+                System.err.println("Discarding incomplete record at the end of " + file);
+                channel.truncate(complete);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+            long position = 0;
+            while (position < complete) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    int memberId = buffer.getInt();
+                    int epochDay = buffer.getInt();
+                    double height = decodeHeight(buffer.getInt());
+                    double weight = decodeWeight(buffer.getInt());
+                    BodyMetrics metrics = loaded.get(memberId);
+                    if (metrics == null) {
+                        metrics = new BodyMetrics();
+                        loaded.put(memberId, metrics);
+                    }
+                    metrics.add(epochDay, height, weight);
+                }
+                // Keep a partly read record for the next read
+                position -= buffer.remaining();
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading body measurements: " + e.getMessage());
+            Metrics.PARSE_FAILURES.increment();
+        }
+        return loaded;
+    }
+
+    private static double decodeHeight(int units) {
+        return units / HEIGHT_UNITS;
+    }
+
+    private static double decodeWeight(int units) {
+        return units / WEIGHT_UNITS;
+    }
+}
@@ -0,0 +1,268 @@
+package gym_management_system;
+
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// Workout storage laid out as parallel int columns (id, member, exercise, sets, epoch day),
+// about 20 bytes per workout with no per-row object. Columns grow in fixed-size chunks, so
+// appending never copies existing rows and rows, once written, never move.
+// Not synchronized: WorkoutManager guards it with its lock.
+public class ColumnarWorkoutStore extends AbstractList<Workout> implements RandomAccess {
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Column numbers for bulk column access
+    public static final int ID_COLUMN = 0;
+    public static final int MEMBER_ID_COLUMN = 1;
+    public static final int EXERCISE_ID_COLUMN = 2;
+    public static final int SETS_COLUMN = 3;
+    public static final int EPOCH_DAY_COLUMN = 4;
+    public static final int COLUMN_COUNT = 5;
+
+    private int[][] ids = new int[4][];
+    private int[][] memberIds = new int[4][];
+    private int[][] exerciseIds = new int[4][];
+    private int[][] sets = new int[4][];
+    private int[][] epochDays = new int[4][];
+    private int size;
+
+    // Copies the columns straight across when the source is a scanned text file
+    public static ColumnarWorkoutStore copyOf(List<Workout> workouts) {
+        ColumnarWorkoutStore store = new ColumnarWorkoutStore();
+        if (workouts instanceof ScannedWorkoutList) {
+            ScannedWorkoutList scanned = (ScannedWorkoutList) workouts;
+            for (int i = 0; i < scanned.size(); i++) {
+                store.add(scanned.idAt(i), scanned.memberIdAt(i), scanned.exerciseIdAt(i),
+                        scanned.setsAt(i), scanned.epochDayAt(i));
+            }
+        } else {
+            store.addAll(workouts);
+        }
+        return store;
+    }
+
+    public void add(int id, int memberId, int exerciseId, int setCount, int epochDay) {
+        int chunk = size >>> CHUNK_SHIFT;
+        int slot = size & CHUNK_MASK;
+        if (slot == 0) {
+            addChunk(chunk);
+        }
+        ids[chunk][slot] = id;
+        memberIds[chunk][slot] = memberId;
+        exerciseIds[chunk][slot] = exerciseId;
+        sets[chunk][slot] = setCount;
+        epochDays[chunk][slot] = epochDay;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean add(Workout workout) {
+        add(workout.getId(), workout.getMemberId(), workout.getExerciseId(), workout.getSets(), workout.getEpochDay());
+        return true;
+    }
+
+    // Builds a new Workout each call; use the column accessors or a cursor for scans
+    @Override
+    public Workout get(int index) {
+        checkIndex(index);
+        return row(ids, memberIds, exerciseIds, sets, epochDays, index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int idAt(int index) {
+        checkIndex(index);
+        return ids[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int memberIdAt(int index) {
+        checkIndex(index);
+        return memberIds[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int exerciseIdAt(int index) {
+        checkIndex(index);
+        return exerciseIds[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int setsAt(int index) {
+        checkIndex(index);
+        return sets[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int epochDayAt(int index) {
+        checkIndex(index);
+        return epochDays[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    // Copies every row of one column into the buffer, a chunk at a time
+    public void getColumn(int column, IntBuffer target) {
+        int[][] chunks = chunks(column);
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            target.put(chunks[start >>> CHUNK_SHIFT], 0, Math.min(CHUNK_SIZE, size - start));
+        }
+    }
+
+    // Appends count rows read from one buffer per column, a chunk at a time
+    public void appendColumns(int count, IntBuffer[] columns) {
+        int end = size + count;
+        while (size < end) {
+            int chunk = size >>> CHUNK_SHIFT;
+            int slot = size & CHUNK_MASK;
+            if (slot == 0) {
+                addChunk(chunk);
+            }
+            int length = Math.min(CHUNK_SIZE - slot, end - size);
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                columns[column].get(chunks(column)[chunk], slot, length);
+            }
+            size += length;
+        }
+        modCount++;
+    }
+
+    private int[][] chunks(int column) {
+        switch (column) {
+            case ID_COLUMN:
+                return ids;
+            case MEMBER_ID_COLUMN:
+                return memberIds;
+            case EXERCISE_ID_COLUMN:
+                return exerciseIds;
+            case SETS_COLUMN:
+                return sets;
+            case EPOCH_DAY_COLUMN:
+                return epochDays;
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    // Cursor over the rows present now; it stays valid while more rows are appended
+    public Cursor cursor() {
+        return new Cursor(ids, memberIds, exerciseIds, sets, epochDays, size);
+    }
+
+    // Point-in-time view of the current rows, safe to read from another thread once handed
+    // over (e.g. through the persistence queue) while this store keeps growing
+    public List<Workout> snapshot() {
+        final int count = size;
+        final int[][] snapshotIds = ids;
+        final int[][] snapshotMemberIds = memberIds;
+        final int[][] snapshotExercises = exerciseIds;
+        final int[][] snapshotSets = sets;
+        final int[][] snapshotDays = epochDays;
+        return new AbstractList<Workout>() {
+            @Override
+            public Workout get(int index) {
+                Objects.checkIndex(index, count);
+                return row(snapshotIds, snapshotMemberIds, snapshotExercises, snapshotSets, snapshotDays, index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private static Workout row(int[][] ids, int[][] memberIds, int[][] exerciseIds, int[][] sets,
+                               int[][] epochDays, int index) {
+        int chunk = index >>> CHUNK_SHIFT;
+        int slot = index & CHUNK_MASK;
+        return new Workout(ids[chunk][slot], memberIds[chunk][slot], exerciseIds[chunk][slot],
+                sets[chunk][slot], epochDays[chunk][slot]);
+    }
+
+    private void addChunk(int chunk) {
+        if (chunk == ids.length) {
+            int capacity = chunk * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            exerciseIds = Arrays.copyOf(exerciseIds, capacity);
+            sets = Arrays.copyOf(sets, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+        }
+        ids[chunk] = new int[CHUNK_SIZE];
+        memberIds[chunk] = new int[CHUNK_SIZE];
+        exerciseIds[chunk] = new int[CHUNK_SIZE];
+        sets[chunk] = new int[CHUNK_SIZE];
+        epochDays[chunk] = new int[CHUNK_SIZE];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    // Flyweight over one row at a time: scans read the columns chunk by chunk without
+    // creating a Workout per row. Values are only valid until the next call to next().
+    public static final class Cursor {
+        private final int[][] ids;
+        private final int[][] memberIds;
+        private final int[][] exerciseIds;
+        private final int[][] sets;
+        private final int[][] epochDays;
+        private final int limit;
+        private int index = -1;
+        private int chunk;
+        private int slot;
+
+        private Cursor(int[][] ids, int[][] memberIds, int[][] exerciseIds, int[][] sets, int[][] epochDays, int limit) {
+            this.ids = ids;
+            this.memberIds = memberIds;
+            this.exerciseIds = exerciseIds;
+            this.sets = sets;
+            this.epochDays = epochDays;
+            this.limit = limit;
+        }
+
+        public boolean next() {
+            if (index + 1 >= limit) {
+                return false;
+            }
+            index++;
+            chunk = index >>> CHUNK_SHIFT;
+            slot = index & CHUNK_MASK;
+            return true;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int id() {
+            return ids[chunk][slot];
+        }
+
+        public int memberId() {
+            return memberIds[chunk][slot];
+        }
+
+        public int exerciseId() {
+            return exerciseIds[chunk][slot];
+        }
+
+        public int sets() {
+            return sets[chunk][slot];
+        }
+
+        public int epochDay() {
+            return epochDays[chunk][slot];
+        }
+
+        public Workout toWorkout() {
+            return new Workout(id(), memberId(), exerciseId(), sets(), epochDay());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package gym_management_system;
+
+// JMX view of a Counter
+public interface CounterMBean {
+    long getCount();
+
+    void reset();
+}
@@ -1,113 +1,161 @@
 package gym_management_system;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 
 public class DataStorage {
-    private static final String MEMBERS_FILE = "members.txt";
-    private static final String WORKOUTS_FILE = "workouts.txt";
+    // Selected with -Dgym.storage.format=text|binary; StorageConverter migrates existing files
+    private static final StorageCodec CODEC = StorageCodec.forName(System.getProperty("gym.storage.format", "text"));
+    private static final String MEMBERS_FILE = "members" + CODEC.getFileExtension();
+    private static final String WORKOUTS_FILE = "workouts" + CODEC.getFileExtension();
 
-    public static void saveMembers(List<Member> members) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(MEMBERS_FILE))) {
-            for (Member member : members) {
-                writer.println("Member ID: " + member.getId());
-                writer.println("Name: " + member.getName());
-                writer.println("Age: " + member.getAge());
-                writer.println("Membership Type: " + member.getMembershipType());
-                writer.println("Height: " + member.getHeight() + "m");
-                writer.println("Weight: " + member.getWeight() + "kg");
-                writer.println("BMI: " + member.getBMI() + " (" + member.getBMIStatus() + ")");
-                writer.println("Join Date: " + member.getJoinDate());
-                writer.println("Status: " + member.getStatus());
-                writer.println("---"); // Separator between members
-            }
+    // Data files live in the working directory unless -Dgym.data.dir points elsewhere
+    public static File dataFile(String name) {
+        return new File(System.getProperty("gym.data.dir", "."), name);
+    }
+
+    public static File workoutsFile() {
+        return dataFile(WORKOUTS_FILE);
+    }
+
+    // False if the members could not be saved
+    public static boolean saveMembers(List<Member> members) {
+        return saveMembers(encodeMembers(members), members.size());
+    }
+
+    // The members file contents. Lets callers read members under their own lock and write
+    // the file outside it.
+    public static byte[] encodeMembers(List<Member> members) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            CODEC.writeMembers(members, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error encoding members", e);
+        }
+        return out.toByteArray();
+    }
+
+    // Writes contents from encodeMembers holding count members; false if they could not be saved
+    public static boolean saveMembers(byte[] encoded, int count) {
+        long start = Metrics.startTimer();
+        File file = dataFile(MEMBERS_FILE);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(encoded);
         } catch (IOException e) {
             System.err.println("Error saving members: " + e.getMessage());
+            Metrics.WRITE_FAILURES.increment();
+            return false;
         }
+        Metrics.MEMBERS_SAVED.add(count);
+        recordWrite(Metrics.MEMBERS_SAVE, start, file);
+        return true;
     }
 
     public static List<Member> loadMembers() {
         List<Member> members = new ArrayList<>();
-        File file = new File(MEMBERS_FILE);
+        File file = dataFile(MEMBERS_FILE);
         
         if (!file.exists()) {
             System.err.println("Error loading members: " + MEMBERS_FILE + " (The system cannot find the file specified)");
             return members;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(MEMBERS_FILE))) {
-            String line;
-            Member currentMember = null;
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("Member ID: ")) {
-                    int id = Integer.parseInt(line.substring(11));
-                    String name = reader.readLine().substring(6);
-                    int age = Integer.parseInt(reader.readLine().substring(5));
-                    String membershipType = reader.readLine().substring(16);
-                    double height = Double.parseDouble(reader.readLine().substring(8).replace("m", ""));
-                    double weight = Double.parseDouble(reader.readLine().substring(8).replace("kg", ""));
-                    reader.readLine(); // Skip BMI line as it will be recalculated
-                    String joinDate = reader.readLine().substring(11);
-                    String status = reader.readLine().substring(8);
-                    reader.readLine(); // Skip separator line
-                    
-                    currentMember = new Member(id, name, age, membershipType);
-                    currentMember.setHeight(height);
-                    currentMember.setWeight(weight);
-                    currentMember.setJoinDate(joinDate);
-                    currentMember.setStatus(status);
-                    members.add(currentMember);
+        long start = Metrics.startTimer();
+        try {
+            // Text files are split at record separators and parsed on several threads
+            if (CODEC instanceof TextStorageCodec) {
+                ((TextStorageCodec) CODEC).readMembers(file, members);
+            } else {
+                try (InputStream in = new FileInputStream(file)) {
+                    CODEC.readMembers(in, members);
                 }
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (IOException | RuntimeException e) {
             System.err.println("Error loading members: " + e.getMessage());
+            Metrics.PARSE_FAILURES.increment();
         }
+        Metrics.MEMBERS_LOADED.add(members.size());
+        Metrics.MEMBERS_LOAD.record(start);
         return members;
     }
 
     public static void saveWorkouts(List<Workout> workouts) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(WORKOUTS_FILE))) {
-            for (Workout workout : workouts) {
-                writer.println("Workout ID: " + workout.getId());
-                writer.println("Member ID: " + workout.getMemberId());
-                writer.println("Exercise: " + workout.getExercise());
-                writer.println("Sets: " + workout.getSets());
-                writer.println("Date: " + workout.getDate());
-                writer.println("---"); // Separator between workouts
-            }
+        long start = Metrics.startTimer();
+        File file = dataFile(WORKOUTS_FILE);
+        try (OutputStream out = new FileOutputStream(file)) {
+            CODEC.writeWorkouts(workouts, out);
+        } catch (IOException e) {
+            System.err.println("Error saving workouts: " + e.getMessage());
+            Metrics.WRITE_FAILURES.increment();
+            return;
+        }
+        Metrics.WORKOUTS_SAVED.add(workouts.size());
+        recordWrite(Metrics.WORKOUTS_SAVE, start, file);
+    }
+
+    // Writes to a temp file first so a crash never leaves a half-written snapshot behind
+    public static boolean saveWorkoutsAtomically(List<Workout> workouts) {
+        long start = Metrics.startTimer();
+        File target = dataFile(WORKOUTS_FILE);
+        File temp = dataFile(WORKOUTS_FILE + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            CODEC.writeWorkouts(workouts, out);
+            out.getFD().sync();
+        } catch (IOException e) {
+            System.err.println("Error saving workouts: " + e.getMessage());
+            Metrics.WRITE_FAILURES.increment();
+            return false;
+        }
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             System.err.println("Error saving workouts: " + e.getMessage());
+            Metrics.WRITE_FAILURES.increment();
+            return false;
         }
+        Metrics.WORKOUTS_SAVED.add(workouts.size());
+        recordWrite(Metrics.WORKOUTS_SAVE, start, target);
+        return true;
     }
 
     public static List<Workout> loadWorkouts() {
         List<Workout> workouts = new ArrayList<>();
-        File file = new File(WORKOUTS_FILE);
+        File file = dataFile(WORKOUTS_FILE);
         
         if (!file.exists()) {
             return workouts;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(WORKOUTS_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("Workout ID: ")) {
-                    int id = Integer.parseInt(line.substring(12));
-                    int memberId = Integer.parseInt(reader.readLine().substring(11));
-                    String exercise = reader.readLine().substring(10);
-                    int sets = Integer.parseInt(reader.readLine().substring(6));
-                    reader.readLine(); // Skip date line
-                    reader.readLine(); // Skip separator line
-                    
-                    Workout workout = new Workout(id, memberId, exercise, sets);
-                    workouts.add(workout);
-                }
+        long start = Metrics.startTimer();
+        if (CODEC instanceof TextStorageCodec) {
+            try {
+                List<Workout> scanned = ScannedWorkoutList.read(file);
+                Metrics.WORKOUTS_LOADED.add(scanned.size());
+                Metrics.WORKOUTS_LOAD.record(start);
+                return scanned;
+            } catch (IOException e) {
+                System.err.println("Could not scan " + WORKOUTS_FILE + ", reading it instead: " + e.getMessage());
             }
-        } catch (IOException | NumberFormatException e) {
+        }
+
+        try (InputStream in = new FileInputStream(file)) {
+            CODEC.readWorkouts(in, workouts);
+        } catch (IOException | RuntimeException e) {
             System.err.println("Error loading workouts: " + e.getMessage());
+            Metrics.PARSE_FAILURES.increment();
         }
+        Metrics.WORKOUTS_LOADED.add(workouts.size());
+        Metrics.WORKOUTS_LOAD.record(start);
         return workouts;
     }
-} 
\ No newline at end of file
+
+    private static void recordWrite(LatencyHistogram histogram, long start, File file) {
+        if (Metrics.ENABLED) {
+            histogram.record(start);
+            Metrics.BYTES_WRITTEN.add(file.length());
+        }
+    }
+}
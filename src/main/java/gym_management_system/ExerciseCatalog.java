@@ -0,0 +1,70 @@
+package gym_management_system;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Process-wide dictionary of exercise names. Each distinct exercise gets a small int ID,
+// so workouts store an int instead of their own copy of the name. Names are matched
+// ignoring case and extra whitespace; the first spelling seen becomes the display name.
+public final class ExerciseCatalog {
+    private static final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[32];
+    private static int count;
+
+    private ExerciseCatalog() {
+    }
+
+    // Returns the ID for the exercise, registering it on first use
+    public static int idOf(String name) {
+        String key = key(name);
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (ExerciseCatalog.class) {
+            id = idsByKey.get(key);
+            if (id == null) {
+                id = count;
+                String[] current = names;
+                if (id == current.length) {
+                    current = Arrays.copyOf(current, id * 2);
+                }
+                current[id] = name.trim().replaceAll("\\s+", " ");
+                names = current;
+                count++;
+                idsByKey.put(key, id);
+            }
+            return id;
+        }
+    }
+
+    // Returns the ID for the exercise, or -1 if it has never been recorded
+    public static int find(String name) {
+        Integer id = idsByKey.get(key(name));
+        return id == null ? -1 : id;
+    }
+
+    public static String nameOf(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Unknown exercise ID: " + id);
+        }
+        return current[id];
+    }
+
+    public static synchronized int size() {
+        return count;
+    }
+
+    // All names, indexed by ID
+    public static synchronized List<String> names() {
+        return List.of(Arrays.copyOf(names, count));
+    }
+
+    private static String key(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,94 @@
+package gym_management_system;
+
+// Owns the single MemberManager and WorkoutManager of the process and the persistence
+// service they share, so the data files are loaded once however many entry points (GUI,
+// CLI, GymManagementSystem) use them. Managers are created on first use; the workout
+// history is the expensive one, so callers that do not need it never load it.
+//
+// Lifecycle: open() returns the shared context, flush() waits for queued writes,
+// close() writes everything out and releases the files. After close() the next open()
+// starts a fresh context that loads the files again.
+public final class GymContext {
+    private static GymContext shared;
+
+    private final PersistenceService persistence = new PersistenceService();
+    private MemberManager memberManager;
+    private WorkoutManager workoutManager;
+    private boolean closed;
+
+    private GymContext() {
+    }
+
+    public static synchronized GymContext open() {
+        if (shared == null) {
+            shared = new GymContext();
+        }
+        return shared;
+    }
+
+    public synchronized MemberManager getMemberManager() {
+        checkOpen();
+        if (memberManager == null) {
+            memberManager = new MemberManager(persistence);
+        }
+        return memberManager;
+    }
+
+    // Loads the workout history on first call, which can take a while for a long history
+    public synchronized WorkoutManager getWorkoutManager() {
+        checkOpen();
+        if (workoutManager == null) {
+            workoutManager = new WorkoutManager(getMemberManager());
+        }
+        return workoutManager;
+    }
+
+    public boolean hasPendingWrites() {
+        return persistence.hasPendingWrites();
+    }
+
+    // Blocks until every change made so far has been written; throws UncheckedIOException
+    // if recorded workouts could not be
+    public void flush() {
+        persistence.flush();
+        WorkoutManager workouts;
+        synchronized (this) {
+            workouts = workoutManager;
+        }
+        if (workouts != null) {
+            workouts.flush();
+        }
+    }
+
+    public void close() {
+        synchronized (GymContext.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // Workouts first: closing them flushes the journal, which shares the writer thread
+            try {
+                if (workoutManager != null) {
+                    workoutManager.close();
+                }
+            } finally {
+                if (memberManager != null) {
+                    memberManager.close();
+                } else {
+                    persistence.close();
+                }
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Gym context is closed");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package gym_management_system;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Headless entry point, e.g.
+//   java gym_management_system.GymManagementSystem import workouts.csv --batch-size 50000
+public class GymManagementCLI {
+
+    public static int run(String[] args) {
+        if (args.length < 2 || !args[0].equals("import")) {
+            printUsage();
+            return 1;
+        }
+        Path file = Paths.get(args[1]);
+        int batchSize = WorkoutImporter.DEFAULT_BATCH_SIZE;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--batch-size") && i + 1 < args.length) {
+                try {
+                    batchSize = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid batch size: " + args[i]);
+                    return 1;
+                }
+            } else {
+                printUsage();
+                return 1;
+            }
+        }
+        if (!Files.isReadable(file)) {
+            System.err.println("Cannot read " + file);
+            return 1;
+        }
+
+        GymManagementSystem system = new GymManagementSystem();
+        try {
+            WorkoutImporter importer = new WorkoutImporter(system.getMemberManager(), system.getWorkoutManager(), batchSize);
+            WorkoutImporter.Result result = importer.importFile(file);
+            for (String error : result.getErrors()) {
+                System.err.println(error);
+            }
+            if (result.getRejected() > result.getErrors().size()) {
+                System.err.println("... " + (result.getRejected() - result.getErrors().size()) + " more rejected rows");
+            }
+            System.out.println(result);
+            return result.getRejected() == 0 ? 0 : 2;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Import failed: " + e.getMessage());
+            return 1;
+        } finally {
+            system.close();
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: GymManagementSystem import <file.csv|file.jsonl> [--batch-size N]");
+        System.err.println("  CSV rows: memberId,exercise,sets[,yyyy-MM-dd] (an optional header line is skipped)");
+        System.err.println("  JSON lines: {\"memberId\":3,\"exercise\":\"bench\",\"sets\":2,\"date\":\"2025-04-26\"}");
+    }
+}
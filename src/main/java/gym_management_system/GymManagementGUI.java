@@ -1,6 +1,10 @@
 package gym_management_system;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,15 +14,31 @@ import javafx.stage.Stage;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class GymManagementGUI extends Application {
+    private GymContext context;
     private MemberManager memberManager;
     private WorkoutManager workoutManager;
+    private WorkoutAnalytics analytics;
+    // Runs name searches and fetches table pages so the FX thread never waits on them
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "member-search");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Override
     public void start(Stage primaryStage) {
-        memberManager = new MemberManager();
-        workoutManager = new WorkoutManager(memberManager);
+        context = GymContext.open();
+        memberManager = context.getMemberManager();
 
         // Create the main layout
         VBox mainLayout = new VBox(20);
@@ -40,6 +60,9 @@ public class GymManagementGUI extends Application {
         Button recordWorkoutBtn = createSimpleButton("Record Workout");
         Button calculateBMIBtn = createSimpleButton("Calculate BMI");
         Button memberInfoBtn = createSimpleButton("Member Info");
+        Button findMemberBtn = createSimpleButton("Find Member");
+        Button browseMembersBtn = createSimpleButton("Browse Members");
+        Button gymStatsBtn = createSimpleButton("Gym Stats");
         Button exitBtn = createSimpleButton("Exit");
 
         // Set button actions
@@ -47,11 +70,16 @@ public class GymManagementGUI extends Application {
         recordWorkoutBtn.setOnAction(e -> showRecordWorkoutDialog());
         calculateBMIBtn.setOnAction(e -> showCalculateBMIDialog());
         memberInfoBtn.setOnAction(e -> showMemberInfoDialog());
+        findMemberBtn.setOnAction(e -> showFindMemberDialog());
+        browseMembersBtn.setOnAction(e -> showMemberBrowserDialog());
+        gymStatsBtn.setOnAction(e -> showGymStatsDialog());
         exitBtn.setOnAction(e -> {
             Alert confirmExit = new Alert(Alert.AlertType.CONFIRMATION);
             confirmExit.setTitle("Exit Application");
             confirmExit.setHeaderText("Are you sure you want to exit?");
-            confirmExit.setContentText("Any unsaved changes will be lost.");
+            confirmExit.setContentText(context.hasPendingWrites()
+                    ? "Pending changes will be saved before closing."
+                    : "All changes have been saved.");
             confirmExit.getDialogPane().setStyle("-fx-background-color: black;");
             
             Button okButton = (Button) confirmExit.getDialogPane().lookupButton(ButtonType.OK);
@@ -61,6 +89,12 @@ public class GymManagementGUI extends Application {
             
             confirmExit.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
+                    try {
+                        context.flush();
+                    } catch (UncheckedIOException ex) {
+                        showAlert("Error", ex.getMessage() + "\nThey will be retried with the next workout recorded.");
+                        return;
+                    }
                     primaryStage.close();
                 }
             });
@@ -72,19 +106,60 @@ public class GymManagementGUI extends Application {
             recordWorkoutBtn,
             calculateBMIBtn,
             memberInfoBtn,
+            findMemberBtn,
+            browseMembersBtn,
+            gymStatsBtn,
             exitBtn
         );
 
+        // The window shows right away; workout history loads in the background and the
+        // buttons that need it are enabled once it is in
+        Label loadingLabel = new Label("Loading workout history...");
+        loadingLabel.setTextFill(Color.WHITE);
+        List<Button> historyButtons = List.of(recordWorkoutBtn, browseMembersBtn, gymStatsBtn);
+        historyButtons.forEach(button -> button.setDisable(true));
+        WorkoutAnalytics workoutAnalytics = new WorkoutAnalytics();
+        Task<WorkoutManager> loadHistory = new Task<>() {
+            @Override
+            protected WorkoutManager call() {
+                WorkoutManager manager = context.getWorkoutManager();
+                manager.subscribe(workoutAnalytics);
+                return manager;
+            }
+        };
+        loadHistory.setOnSucceeded(e -> {
+            workoutManager = loadHistory.getValue();
+            analytics = workoutAnalytics;
+            historyButtons.forEach(button -> button.setDisable(false));
+            mainLayout.getChildren().remove(loadingLabel);
+        });
+        loadHistory.setOnFailed(e -> {
+            loadingLabel.setText("Could not load workout history");
+            showAlert("Error", "Could not load workout history: " + loadHistory.getException().getMessage());
+        });
+        Thread loader = new Thread(loadHistory, "history-loader");
+        loader.setDaemon(true);
+        loader.start();
+
         // Add all components to main layout
-        mainLayout.getChildren().addAll(welcomeLabel, buttonContainer);
+        mainLayout.getChildren().addAll(welcomeLabel, buttonContainer, loadingLabel);
 
         // Create the scene
-        Scene scene = new Scene(mainLayout, 400, 500);
+        Scene scene = new Scene(mainLayout, 400, 690);
         primaryStage.setTitle("Gym Management System");
         primaryStage.setScene(scene);
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        searchExecutor.shutdownNow();
+        // Waits for a history load still in progress, so the journal is closed cleanly
+        if (context != null) {
+            context.close();
+        }
+    }
+
     private Button createSimpleButton(String text) {
         Button button = new Button(text);
         styleSimpleButton(button);
@@ -386,6 +461,213 @@ public class GymManagementGUI extends Application {
         });
     }
 
+    private void showMemberBrowserDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Browse Members");
+        dialog.setHeaderText("Members and Workout History");
+        dialog.getDialogPane().setStyle("-fx-background-color: black;");
+        dialog.setResizable(true);
+
+        TextField nameFilterField = new TextField();
+        nameFilterField.setPromptText("Name starts with...");
+        styleSimpleTextField(nameFilterField);
+
+        ComboBox<String> statusComboBox = new ComboBox<>();
+        statusComboBox.getItems().addAll("All", "Active", "Inactive");
+        statusComboBox.setValue("All");
+
+        // Rows are fetched page by page from the managers; sorting and filtering run there too
+        TableView<Member> memberTable = new TableView<>();
+        memberTable.setFixedCellSize(26);
+        memberTable.setPrefSize(640, 320);
+        TableColumn<Member, Number> idColumn = new TableColumn<>("ID");
+        idColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getId()));
+        TableColumn<Member, String> nameColumn = new TableColumn<>("Name");
+        nameColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getName()));
+        nameColumn.setPrefWidth(180);
+        TableColumn<Member, Number> ageColumn = new TableColumn<>("Age");
+        ageColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getAge()));
+        TableColumn<Member, String> typeColumn = new TableColumn<>("Membership");
+        typeColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getMembershipType()));
+        typeColumn.setSortable(false);
+        TableColumn<Member, String> statusColumn = new TableColumn<>("Status");
+        statusColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getStatus()));
+        statusColumn.setSortable(false);
+        memberTable.getColumns().addAll(List.of(idColumn, nameColumn, ageColumn, typeColumn, statusColumn));
+
+        TableView<Workout> workoutTable = new TableView<>();
+        workoutTable.setFixedCellSize(26);
+        workoutTable.setPrefSize(640, 200);
+        workoutTable.setPlaceholder(new Label("Select a member to see their workouts"));
+        TableColumn<Workout, Number> workoutIdColumn = new TableColumn<>("Workout ID");
+        workoutIdColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getId()));
+        TableColumn<Workout, String> exerciseColumn = new TableColumn<>("Exercise");
+        exerciseColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getExercise()));
+        exerciseColumn.setPrefWidth(200);
+        TableColumn<Workout, Number> setsColumn = new TableColumn<>("Sets");
+        setsColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getSets()));
+        TableColumn<Workout, String> dateColumn = new TableColumn<>("Date");
+        dateColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue() == null ? null : c.getValue().getDate()));
+        for (TableColumn<Workout, ?> column : List.of(workoutIdColumn, exerciseColumn, setsColumn, dateColumn)) {
+            column.setSortable(false);
+        }
+        workoutTable.getColumns().addAll(List.of(workoutIdColumn, exerciseColumn, setsColumn, dateColumn));
+
+        Label countLabel = new Label();
+        countLabel.setTextFill(Color.WHITE);
+
+        // Queries run on the search thread; a result that arrives after a newer query is dropped
+        List<Task<Integer>> latest = new ArrayList<>();
+        Runnable reload = () -> {
+            MemberQuery.SortKey sortKey = MemberQuery.SortKey.ID;
+            boolean ascending = true;
+            if (!memberTable.getSortOrder().isEmpty()) {
+                TableColumn<Member, ?> sortColumn = memberTable.getSortOrder().get(0);
+                sortKey = sortColumn == nameColumn ? MemberQuery.SortKey.NAME
+                        : sortColumn == ageColumn ? MemberQuery.SortKey.AGE
+                        : MemberQuery.SortKey.ID;
+                ascending = sortColumn.getSortType() == TableColumn.SortType.ASCENDING;
+            }
+            String status = statusComboBox.getValue().equals("All") ? null : statusComboBox.getValue();
+            MemberQuery query = new MemberQuery(sortKey, ascending, status, nameFilterField.getText());
+            latest.forEach(Task::cancel);
+            latest.clear();
+            Task<Integer> count = new Task<>() {
+                @Override
+                protected Integer call() {
+                    return memberManager.countMembers(query);
+                }
+            };
+            count.setOnSucceeded(done -> {
+                if (latest.contains(count)) {
+                    // Pages come from the query result the count left cached
+                    memberTable.setItems(new PagedList<>(count.getValue(),
+                            (offset, limit) -> memberManager.getMemberPage(query, offset, limit), searchExecutor));
+                    countLabel.setText(count.getValue() + " members");
+                }
+            });
+            latest.add(count);
+            searchExecutor.execute(count);
+        };
+        memberTable.setSortPolicy(table -> {
+            reload.run();
+            return true;
+        });
+        // Filters once typing pauses
+        PauseTransition debounce = new PauseTransition(Duration.millis(250));
+        debounce.setOnFinished(e -> reload.run());
+        nameFilterField.textProperty().addListener((observable, oldValue, newValue) -> debounce.playFromStart());
+        statusComboBox.valueProperty().addListener((observable, oldValue, newValue) -> reload.run());
+        memberTable.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, member) -> {
+            if (member == null) {
+                workoutTable.setItems(FXCollections.observableArrayList());
+                return;
+            }
+            int memberId = member.getId();
+            workoutTable.setItems(new PagedList<>(workoutManager.getWorkoutCount(memberId),
+                    (offset, limit) -> workoutManager.getWorkoutsForMember(memberId, offset, limit), searchExecutor));
+        });
+        reload.run();
+
+        HBox filters = new HBox(10, nameFilterField, statusComboBox, countLabel);
+        filters.setAlignment(Pos.CENTER_LEFT);
+        VBox content = new VBox(10, filters, memberTable, workoutTable);
+        content.setPadding(new Insets(20));
+        content.setStyle("-fx-background-color: black;");
+        VBox.setVgrow(memberTable, Priority.ALWAYS);
+
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        styleSimpleButton((Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE));
+        dialog.showAndWait();
+        debounce.stop();
+        latest.forEach(Task::cancel);
+    }
+
+    private void showFindMemberDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Find Member");
+        dialog.setHeaderText("Search Members by Name");
+        dialog.getDialogPane().setStyle("-fx-background-color: black;");
+
+        TextField searchField = new TextField();
+        searchField.setPromptText("Type part of a name...");
+        styleSimpleTextField(searchField);
+
+        ListView<Member> resultList = new ListView<>();
+        resultList.setPrefSize(400, 240);
+        resultList.setPlaceholder(new Label("No matching members"));
+        resultList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Member member, boolean empty) {
+                super.updateItem(member, empty);
+                setText(empty || member == null ? null
+                        : member.getName() + "  (ID " + member.getId() + ", " + member.getStatus() + ")");
+            }
+        });
+
+        TextArea detailsArea = new TextArea();
+        detailsArea.setEditable(false);
+        detailsArea.setPrefRowCount(9);
+        detailsArea.setStyle("-fx-control-inner-background: black; -fx-text-fill: white;");
+        resultList.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, member) ->
+                detailsArea.setText(member == null ? "" : memberManager.getMemberInfo(member.getId())));
+
+        // Searches once typing pauses; a result that arrives after newer input is dropped
+        List<Task<List<Member>>> latest = new ArrayList<>();
+        PauseTransition debounce = new PauseTransition(Duration.millis(250));
+        debounce.setOnFinished(e -> {
+            latest.forEach(Task::cancel);
+            latest.clear();
+            String text = searchField.getText();
+            if (text.isBlank()) {
+                resultList.getItems().clear();
+                return;
+            }
+            Task<List<Member>> search = new Task<>() {
+                @Override
+                protected List<Member> call() {
+                    return memberManager.searchMembers(text, 50);
+                }
+            };
+            search.setOnSucceeded(done -> {
+                if (latest.contains(search)) {
+                    resultList.setItems(FXCollections.observableArrayList(search.getValue()));
+                }
+            });
+            latest.add(search);
+            searchExecutor.execute(search);
+        });
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> debounce.playFromStart());
+
+        VBox content = new VBox(10, searchField, resultList, detailsArea);
+        content.setPadding(new Insets(20));
+        content.setStyle("-fx-background-color: black;");
+
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        styleSimpleButton((Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE));
+        dialog.setOnShown(e -> searchField.requestFocus());
+        dialog.showAndWait();
+        debounce.stop();
+        latest.forEach(Task::cancel);
+    }
+
+    private void showGymStatsDialog() {
+        LocalDate today = LocalDate.now();
+        StringBuilder stats = new StringBuilder();
+        stats.append("Total workouts: ").append(analytics.getTotalWorkouts()).append("\n")
+             .append("Total sets: ").append(analytics.getTotalSets()).append("\n\n")
+             .append("Active members today: ").append(analytics.getActiveMembers(today)).append("\n")
+             .append("Active members this week: ").append(analytics.getActiveMembersInWeek(today)).append("\n")
+             .append("Sets this week: ").append(analytics.getWeeklyVolume(today)).append("\n")
+             .append("Sets last week: ").append(analytics.getWeeklyVolume(today.minusWeeks(1))).append("\n\n")
+             .append("Top exercises (sets):\n");
+        analytics.getTopExercises(5).forEach((exercise, sets) ->
+                stats.append("  ").append(exercise).append(": ").append(sets).append("\n"));
+        showAlert("Gym Stats", stats.toString());
+    }
+
     private void showCalculateBMIDialog() {
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Calculate BMI");
@@ -487,17 +769,18 @@ public class GymManagementGUI extends Application {
                         return;
                     }
 
-                    // Convert height from cm to meters
+                    // Convert height from cm to meters; the measurement is saved and
+                    // added to the member's history
                     double heightMeters = heightCm / 100.0;
-                    member.setHeight(heightMeters);
-                    member.setWeight(weight);
+                    BodyMetrics progress = memberManager.recordMeasurement(memberId, heightMeters, weight);
 
                     String bmiInfo = String.format("BMI Calculation Results:\n\n" +
                             "Height: %.2f cm (%.2f m)\n" +
                             "Weight: %.2f kg\n" +
                             "BMI: %.2f\n" +
-                            "Status: %s",
-                            heightCm, heightMeters, weight, member.getBMI(), member.getBMIStatus());
+                            "Status: %s\n\n" +
+                            "Progress:\n%s",
+                            heightCm, heightMeters, weight, member.getBMI(), member.getBMIStatus(), progress);
 
                     showAlert("BMI Results", bmiInfo);
                 } catch (NumberFormatException e) {
@@ -3,48 +3,59 @@ package gym_management_system;
 import java.util.ArrayList;
 import java.util.List;
 
+// Facade over the shared GymContext; the managers load on first use
 public class GymManagementSystem {
-    private MemberManager memberManager;
-    private WorkoutManager workoutManager;
+    private final GymContext context;
 
     public GymManagementSystem() {
-        this.memberManager = new MemberManager();
-        this.workoutManager = new WorkoutManager(memberManager);
+        this(GymContext.open());
+    }
+
+    public GymManagementSystem(GymContext context) {
+        this.context = context;
     }
 
     public void addMember(Member member) {
-        memberManager.addMember(member);
+        getMemberManager().addMember(member);
     }
 
     public void removeMember(Member member) {
-        memberManager.removeMember(member);
+        getMemberManager().removeMember(member);
     }
 
     public List<Member> getAllMembers() {
-        return memberManager.getAllMembers();
+        return getMemberManager().getAllMembers();
     }
 
     public void recordWorkout(int memberId, String exercise, int duration) {
-        workoutManager.recordWorkout(memberId, exercise, duration);
+        getWorkoutManager().recordWorkout(memberId, exercise, duration);
     }
 
     public String getMemberWorkouts(int memberId) {
-        return workoutManager.getWorkoutHistory(memberId);
+        return getWorkoutManager().getWorkoutHistory(memberId);
     }
 
     public String getWorkoutHistory(int memberId) {
-        return workoutManager.getWorkoutHistory(memberId);
+        return getWorkoutManager().getWorkoutHistory(memberId);
     }
 
     public MemberManager getMemberManager() {
-        return memberManager;
+        return context.getMemberManager();
     }
 
     public WorkoutManager getWorkoutManager() {
-        return workoutManager;
+        return context.getWorkoutManager();
+    }
+
+    public void close() {
+        context.close();
     }
 
+    // With arguments the system runs headless (see GymManagementCLI); otherwise it opens the GUI
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(GymManagementCLI.run(args));
+        }
         GymManagementGUI.launch(GymManagementGUI.class, args);
     }
 } 
\ No newline at end of file
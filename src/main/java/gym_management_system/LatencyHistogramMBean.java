@@ -0,0 +1,20 @@
+package gym_management_system;
+
+// JMX view of a LatencyHistogram; times are in microseconds
+public interface LatencyHistogramMBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
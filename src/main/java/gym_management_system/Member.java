@@ -1,6 +1,8 @@
 package gym_management_system;
 
 import java.time.LocalDate;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 public class Member {
     private int id;
@@ -12,6 +14,9 @@ public class Member {
     private double height; // in meters
     private double weight; // in kg
     private double bmi;
+    private boolean dirty; // changed since the last save
+    private long version; // counts changes, so cached views of the member can tell they are stale
+    private Consumer<Member> changeListener; // told when the member first changes after a save
 
     public Member(int id, String name, int age, String membershipType) {
         this.id = id;
@@ -25,6 +30,11 @@ public class Member {
         this.bmi = 0.0;
     }
 
+    // For subclasses that keep the fields elsewhere (see OffHeapMemberStore)
+    protected Member(int id) {
+        this.id = id;
+    }
+
     // Getters and Setters
     public int getId() {
         return id;
@@ -35,7 +45,10 @@ public class Member {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            markDirty();
+        }
     }
 
     public int getAge() {
@@ -43,7 +56,10 @@ public class Member {
     }
 
     public void setAge(int age) {
-        this.age = age;
+        if (this.age != age) {
+            this.age = age;
+            markDirty();
+        }
     }
 
     public String getMembershipType() {
@@ -51,7 +67,10 @@ public class Member {
     }
 
     public void setMembershipType(String membershipType) {
-        this.membershipType = membershipType;
+        if (!Objects.equals(this.membershipType, membershipType)) {
+            this.membershipType = membershipType;
+            markDirty();
+        }
     }
 
     public String getJoinDate() {
@@ -59,7 +78,10 @@ public class Member {
     }
 
     public void setJoinDate(String joinDate) {
-        this.joinDate = joinDate;
+        if (!Objects.equals(this.joinDate, joinDate)) {
+            this.joinDate = joinDate;
+            markDirty();
+        }
     }
 
     public String getStatus() {
@@ -67,7 +89,10 @@ public class Member {
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        if (!Objects.equals(this.status, status)) {
+            this.status = status;
+            markDirty();
+        }
     }
 
     public double getHeight() {
@@ -75,8 +100,11 @@ public class Member {
     }
 
     public void setHeight(double height) {
-        this.height = height;
-        calculateBMI();
+        if (this.height != height) {
+            this.height = height;
+            markDirty();
+            calculateBMI();
+        }
     }
 
     public double getWeight() {
@@ -84,8 +112,11 @@ public class Member {
     }
 
     public void setWeight(double weight) {
-        this.weight = weight;
-        calculateBMI();
+        if (this.weight != weight) {
+            this.weight = weight;
+            markDirty();
+            calculateBMI();
+        }
     }
 
     private void calculateBMI() {
@@ -98,23 +129,71 @@ public class Member {
         return bmi;
     }
 
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markClean() {
+        dirty = false;
+    }
+
+    // Set by MemberManager, so saving does not have to look through every member for changes
+    void setChangeListener(Consumer<Member> listener) {
+        changeListener = listener;
+    }
+
+    // Puts the member back among the changed ones after its save failed
+    void markUnsaved() {
+        if (!dirty) {
+            dirty = true;
+            notifyChanged();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    protected void markDirty() {
+        version++;
+        if (!dirty) {
+            dirty = true;
+            notifyChanged();
+        }
+    }
+
+    private void notifyChanged() {
+        Consumer<Member> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
     public String getBMIStatus() {
+        double bmi = getBMI();
         if (bmi < 18.5) return "Underweight";
         else if (bmi < 25) return "Normal weight";
         else if (bmi < 30) return "Overweight";
         else return "Obese";
     }
 
+    // Writes what toString returns, without intermediate Strings
+    public void appendTo(RecordBuffer buffer) {
+        buffer.append("Member ID: ").append(getId()).append('\n')
+              .append("Name: ").append(getName()).append('\n')
+              .append("Age: ").append(getAge()).append('\n')
+              .append("Membership Type: ").append(getMembershipType()).append('\n')
+              .append("Height: ").appendFixed(getHeight(), 2).append("m\n")
+              .append("Weight: ").appendFixed(getWeight(), 2).append("kg\n")
+              .append("BMI: ").appendFixed(getBMI(), 2).append(" (").append(getBMIStatus()).append(")\n")
+              .append("Join Date: ").append(getJoinDate()).append('\n')
+              .append("Status: ").append(getStatus());
+    }
+
     @Override
     public String toString() {
-        return "Member ID: " + id + "\n" +
-               "Name: " + name + "\n" +
-               "Age: " + age + "\n" +
-               "Membership Type: " + membershipType + "\n" +
-               "Height: " + String.format("%.2f", height) + "m\n" +
-               "Weight: " + String.format("%.2f", weight) + "kg\n" +
-               "BMI: " + String.format("%.2f", bmi) + " (" + getBMIStatus() + ")\n" +
-               "Join Date: " + joinDate + "\n" +
-               "Status: " + status;
+        RecordBuffer buffer = new RecordBuffer(256);
+        appendTo(buffer);
+        return buffer.toString();
     }
 } 
\ No newline at end of file
@@ -1,78 +1,477 @@
 package gym_management_system;
 
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
+// Safe to share between threads. Lookups take the read lock; mutations and batches
+// take the write lock. getAllMembers hands out a cached immutable snapshot.
 public class MemberManager {
     private List<Member> members;
-    private int nextId;
+    private IntObjectMap<Member> membersById;
+    private final MemberNameIndex nameIndex = new MemberNameIndex();
+    private PersistenceService persistence;
+    // Set with -Dgym.members.store=offheap; members are then handles into this store
+    private final OffHeapMemberStore offHeapStore;
+    private final AtomicInteger nextId;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile List<Member> snapshot; // null when members changed since it was taken
+    private boolean membershipChanged; // members added or removed since the last save
+    // Members changed since the last save, each queued by the member itself when it first
+    // changes, also when changed directly rather than through this manager
+    private final Queue<Member> changedMembers = new ConcurrentLinkedQueue<>();
+    private volatile boolean saveFailed; // the last write failed, so the next one must happen
+    private int version; // bumped by every mutation, guarded by the lock
+
+    // Result of the last browse query, reused while members are unchanged so that
+    // paging through it costs O(page size). Queries are answered from the members kept
+    // sorted by each sort key, or from the name index when they filter by name.
+    private final Object queryCacheLock = new Object();
+    private MemberQuery cachedQuery;
+    private Member[] cachedResult;
+    private int cachedVersion = -1;
+    private final SortedOrder[] sortedOrders = new SortedOrder[MemberQuery.SortKey.values().length];
+    // Rendered getMemberInfo text; entries go stale with the member's own version
+    private final RenderCache memberViews = new RenderCache();
+    // Height and weight history, read on first use
+    private final BodyMetricsLog bodyMetrics = new BodyMetricsLog();
 
     public MemberManager() {
-        members = DataStorage.loadMembers();
-        nextId = members.stream()
+        this(new PersistenceService());
+    }
+
+    public MemberManager(PersistenceService persistence) {
+        this.persistence = persistence;
+        this.offHeapStore = "offheap".equals(System.getProperty("gym.members.store", "heap"))
+                ? new OffHeapMemberStore() : null;
+        List<Member> loaded = DataStorage.loadMembers();
+        members = new ArrayList<>(loaded.size());
+        membersById = new IntObjectMap<>(loaded.size());
+        // The name index is the slowest to build, so it is built alongside the rest
+        ParallelLoader.runConcurrently(() -> {
+            for (Member member : loaded) {
+                nameIndex.put(member.getId(), member.getName());
+            }
+        }, () -> {
+            for (Member loadedMember : loaded) {
+                Member member = store(loadedMember);
+                members.add(member);
+                membersById.put(member.getId(), member);
+                member.markClean();
+            }
+        });
+        nextId = new AtomicInteger(members.stream()
                        .mapToInt(Member::getId)
                        .max()
-                       .orElse(0) + 1;
+                       .orElse(0) + 1);
+        Metrics.register("cache.memberViews", memberViews);
+        for (int i = 0; i < sortedOrders.length; i++) {
+            sortedOrders[i] = new SortedOrder();
+        }
     }
 
     public void registerNewMember(String name, int age, String membershipType) {
-        Member member = new Member(nextId++, name, age, membershipType);
-        members.add(member);
-        DataStorage.saveMembers(members);
+        Member member = store(new Member(nextId.getAndIncrement(), name, age, membershipType));
+        lock.writeLock().lock();
+        try {
+            members.add(member);
+            membersById.put(member.getId(), member);
+            nameIndex.put(member.getId(), member.getName());
+            membershipChanged = true;
+            saveMembers();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public Member getMember(int id) {
-        Optional<Member> member = members.stream()
-                                       .filter(m -> m.getId() == id)
-                                       .findFirst();
-        return member.orElseThrow(() -> new IllegalArgumentException("Member not found with ID: " + id));
+        long start = Metrics.startTimer();
+        Member member;
+        lock.readLock().lock();
+        try {
+            member = membersById.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Metrics.GET_MEMBER.record(start);
+        if (member == null) {
+            throw new IllegalArgumentException("Member not found with ID: " + id);
+        }
+        return member;
+    }
+
+    public boolean hasMember(int id) {
+        lock.readLock().lock();
+        try {
+            return membersById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public List<Member> getAllMembers() {
-        return new ArrayList<>(members);
+        List<Member> current = snapshot;
+        if (current == null) {
+            lock.readLock().lock();
+            try {
+                current = List.copyOf(members);
+                snapshot = current;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return current;
+    }
+
+    public int countMembers(MemberQuery query) {
+        return resolve(query).length;
+    }
+
+    // Returns at most limit members matching the query, starting at offset in query order
+    public List<Member> getMemberPage(MemberQuery query, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        Member[] result = resolve(query);
+        int from = Math.min(offset, result.length);
+        int to = (int) Math.min((long) from + limit, result.length);
+        return List.of(Arrays.copyOfRange(result, from, to));
+    }
+
+    // Members whose name has words starting with the words of the text, then (if there are
+    // fewer than limit) members whose name has a word within a typo or two of it
+    public List<Member> searchMembers(String text, int limit) {
+        long start = Metrics.startTimer();
+        lock.readLock().lock();
+        try {
+            List<Member> result = new ArrayList<>();
+            for (int id : nameIndex.searchPrefix(text, limit)) {
+                result.add(membersById.get(id));
+            }
+            if (result.size() < limit) {
+                for (int id : nameIndex.searchFuzzy(text, limit)) {
+                    Member member = membersById.get(id);
+                    if (!result.contains(member) && result.size() < limit) {
+                        result.add(member);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+            Metrics.SEARCH_MEMBERS.record(start);
+        }
     }
 
     public String getAllMembersInfo() {
-        StringBuilder sb = new StringBuilder();
-        for (Member member : members) {
-            sb.append(member.toString()).append("\n");
+        RecordBuffer info = new RecordBuffer();
+        for (Member member : getAllMembers()) {
+            member.appendTo(info);
+            info.append('\n');
         }
-        return sb.toString();
+        return info.toString();
     }
 
     public String getMemberInfo(int id) {
         Member member = getMember(id);
-        return member.toString();
+        long memberVersion = member.getVersion();
+        String info = memberViews.get(id, member, memberVersion);
+        if (info == null) {
+            info = member.toString();
+            memberViews.put(id, member, memberVersion, info);
+        }
+        return info;
     }
 
     public void updateMember(int memberId, String name, int age, String membershipType) {
-        Member member = getMember(memberId);
-        member.setName(name);
-        member.setAge(age);
-        member.setMembershipType(membershipType);
-        DataStorage.saveMembers(members);
+        lock.writeLock().lock();
+        try {
+            Member member = getMember(memberId);
+            member.setName(name);
+            member.setAge(age);
+            member.setMembershipType(membershipType);
+            nameIndex.put(memberId, name);
+            memberViews.invalidate(memberId);
+            saveMembers();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sets the member's height (m) and weight (kg), saves them and adds them to the member's
+    // measurement history; returns the updated summary of that history
+    public BodyMetrics recordMeasurement(int memberId, double height, double weight) {
+        if (!(height > 0) || !(weight > 0)) {
+            throw new IllegalArgumentException("Height and weight must be positive");
+        }
+        lock.writeLock().lock();
+        try {
+            Member member = getMember(memberId);
+            member.setHeight(height);
+            member.setWeight(weight);
+            memberViews.invalidate(memberId);
+            saveMembers();
+            // Queued under the lock so records reach the file in the order they were added
+            ByteBuffer record = bodyMetrics.add(memberId, (int) LocalDate.now().toEpochDay(), height, weight);
+            persistence.execute(() -> bodyMetrics.append(record));
+            return bodyMetrics.get(memberId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Summary of the member's measurement history, or null if they were never measured
+    public BodyMetrics getBodyMetrics(int memberId) {
+        return bodyMetrics.get(memberId);
     }
 
     public void deactivateMember(int memberId) {
-        Member member = getMember(memberId);
-        member.setStatus("Inactive");
-        DataStorage.saveMembers(members);
+        setStatus(memberId, "Inactive");
     }
 
     public void activateMember(int memberId) {
-        Member member = getMember(memberId);
-        member.setStatus("Active");
-        DataStorage.saveMembers(members);
+        setStatus(memberId, "Active");
     }
 
+    // With the off-heap store the manager keeps a copy: change the member via getMember
     public void addMember(Member member) {
-        members.add(member);
-        DataStorage.saveMembers(members);
+        lock.writeLock().lock();
+        try {
+            member = store(member);
+            Member previous = membersById.put(member.getId(), member);
+            if (previous != null) {
+                members.remove(previous);
+            }
+            members.add(member);
+            nameIndex.put(member.getId(), member.getName());
+            memberViews.invalidate(member.getId());
+            nextId.accumulateAndGet(member.getId() + 1, Math::max);
+            membershipChanged = true;
+            saveMembers();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public void removeMember(Member member) {
-        members.remove(member);
-        DataStorage.saveMembers(members);
+        lock.writeLock().lock();
+        try {
+            if (offHeapStore != null) {
+                // The caller may hold the original object rather than the stored copy
+                Member stored = membersById.get(member.getId());
+                member = stored != null ? stored : member;
+            }
+            if (members.remove(member)) {
+                if (membersById.get(member.getId()) == member) {
+                    membersById.remove(member.getId());
+                    nameIndex.remove(member.getId());
+                    memberViews.invalidate(member.getId());
+                }
+                membershipChanged = true;
+            }
+            saveMembers();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Starts a batch on the calling thread: saves are deferred until the matching commit(),
+    // and other threads cannot read or change members until then. Batches may nest. Do not
+    // wait for the persistence service inside a batch: its member writes need the read lock.
+    public void begin() {
+        lock.writeLock().lock();
+    }
+
+    public void commit() {
+        if (!lock.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("No batch in progress");
+        }
+        try {
+            if (lock.getWriteHoldCount() == 1) {
+                saveMembers();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applies the mutation to every member and persists once at the end
+    public void mutateAll(Consumer<Member> mutation) {
+        begin();
+        try {
+            for (Member member : members) {
+                mutation.accept(member);
+            }
+        } finally {
+            commit();
+        }
+    }
+
+    public PersistenceService getPersistenceService() {
+        return persistence;
+    }
+
+    public void close() {
+        persistence.close();
+        if (saveFailed && writeMembers(getAllMembers())) {
+            saveFailed = false;
+        }
+    }
+
+    private void setStatus(int memberId, String status) {
+        lock.writeLock().lock();
+        try {
+            getMember(memberId).setStatus(status);
+            saveMembers();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Member store(Member member) {
+        Member stored = offHeapStore != null ? offHeapStore.add(member) : member;
+        stored.setChangeListener(changedMembers::add);
+        return stored;
+    }
+
+    private Member[] resolve(MemberQuery query) {
+        synchronized (queryCacheLock) {
+            lock.readLock().lock();
+            try {
+                // Members changed in a batch or directly, and not yet seen by saveMembers, have
+                // not bumped the version and may be missing from the name index
+                boolean pending = !changedMembers.isEmpty();
+                if (version != cachedVersion || pending || !query.equals(cachedQuery)) {
+                    List<String> nameWords = MemberNameIndex.words(query.getNamePrefix());
+                    cachedResult = nameWords.isEmpty() || pending
+                            ? filterSorted(query, pending) : filterByName(query, nameWords.get(0));
+                    cachedQuery = query;
+                    cachedVersion = version;
+                }
+                return cachedResult;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    // Every name starting with the prefix has a word starting with the prefix's first word,
+    // so the index narrows the query down to those members, which are then checked and sorted
+    private Member[] filterByName(MemberQuery query, String firstWord) {
+        List<Member> result = new ArrayList<>();
+        for (int id : nameIndex.searchPrefix(firstWord, Integer.MAX_VALUE)) {
+            Member member = membersById.get(id);
+            if (member != null && query.matches(member)) {
+                result.add(member);
+            }
+        }
+        Member[] sorted = result.toArray(new Member[0]);
+        Arrays.sort(sorted, query.comparator());
+        return sorted;
+    }
+
+    private Member[] filterSorted(MemberQuery query, boolean pending) {
+        Member[] sorted = sortedOrder(query.getSortKey(), pending);
+        if (query.getStatus() == null && query.getNamePrefix().isEmpty() && query.isAscending()) {
+            return sorted;
+        }
+        List<Member> result = new ArrayList<>();
+        for (int i = 0; i < sorted.length; i++) {
+            Member member = sorted[query.isAscending() ? i : sorted.length - 1 - i];
+            if (query.matches(member)) {
+                result.add(member);
+            }
+        }
+        return result.toArray(new Member[0]);
+    }
+
+    // Members in ascending order of the key. After changes to members the previous order is
+    // sorted again, which is close to linear as it is still almost in order; only adding or
+    // removing members starts over from the member list. Called with queryCacheLock held.
+    private Member[] sortedOrder(MemberQuery.SortKey sortKey, boolean pending) {
+        SortedOrder order = sortedOrders[sortKey.ordinal()];
+        if (order.version != version || pending) {
+            List<Member> current = getAllMembers();
+            // Sorted arrays are handed out as query results, so they are never changed
+            Member[] sorted = current == order.source ? order.members.clone() : current.toArray(new Member[0]);
+            Arrays.sort(sorted, MemberQuery.comparator(sortKey));
+            order.source = current;
+            order.members = sorted;
+            order.version = version;
+        }
+        return order.members;
+    }
+
+    // Called with the write lock held. Only the members queued as changed are looked at, and
+    // the list written is the cached snapshot, so saving after a single change costs O(1)
+    // here; back-to-back saves collapse into one write. The storage formats have
+    // variable-length records, so any change rewrites the file, but nothing is written when
+    // no member actually changed.
+    private void saveMembers() {
+        version++;
+        if (membershipChanged) {
+            snapshot = null;
+        }
+        if (lock.getWriteHoldCount() > 1) {
+            return;
+        }
+        boolean changed = membershipChanged || saveFailed;
+        List<Member> cleaned = new ArrayList<>();
+        Member member;
+        while ((member = changedMembers.poll()) != null) {
+            // Catches renames made in batches or directly on the member
+            if (membersById.get(member.getId()) == member) {
+                nameIndex.put(member.getId(), member.getName());
+            }
+            member.markClean();
+            cleaned.add(member);
+            changed = true;
+        }
+        if (!changed) {
+            return;
+        }
+        membershipChanged = false;
+        saveFailed = false;
+        List<Member> saved = snapshot;
+        if (saved == null) {
+            saved = List.copyOf(members);
+            snapshot = saved;
+        }
+        List<Member> toSave = saved;
+        persistence.submit("members", () -> {
+            if (!writeMembers(toSave)) {
+                // Still unsaved: the next change (or close) writes the file again
+                saveFailed = true;
+                for (Member unsaved : cleaned) {
+                    unsaved.markUnsaved();
+                }
+            }
+        });
+    }
+
+    // Members are changed under the write lock and their fields are plain, so the records
+    // are encoded under the read lock; the file is written after it is released
+    private boolean writeMembers(List<Member> members) {
+        byte[] encoded;
+        lock.readLock().lock();
+        try {
+            encoded = DataStorage.encodeMembers(members);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return DataStorage.saveMembers(encoded, members.size());
+    }
+
+    private static final class SortedOrder {
+        List<Member> source; // the members snapshot it was sorted from
+        Member[] members;
+        int version = -1;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,333 @@
+package gym_management_system;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Search index over member names. Names are split into lowercase words and every distinct
+// word is stored once in a trie, with the IDs of the members whose name contains it, in
+// ascending order so a member is found by binary search. Words no member uses any more
+// are pruned from the trie.
+// Prefix lookups walk to the prefix node; fuzzy lookups walk the trie computing edit
+// distances row by row and skip any branch that is already too far from the query.
+// Not synchronized: MemberManager guards it with its lock.
+public class MemberNameIndex {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private final IntObjectMap<String> names = new IntObjectMap<>(); // name as indexed
+    // Word -> its trie node. Names repeat words a lot, and one hash lookup is much cheaper
+    // than walking a node per character.
+    private final Map<String, Node> wordNodes = new HashMap<>();
+
+    public void put(int memberId, String name) {
+        String previous = names.get(memberId);
+        if (previous != null) {
+            if (previous.equals(name)) {
+                return;
+            }
+            remove(memberId);
+        }
+        if (name == null) {
+            return;
+        }
+        names.put(memberId, name);
+        List<String> words = words(name);
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            if (words.subList(0, w).contains(word)) {
+                continue;
+            }
+            Node node = wordNodes.get(word);
+            if (node == null) {
+                node = root;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.childOrCreate(word.charAt(i));
+                }
+                node.memberIds = new IntList(2);
+                wordNodes.put(word, node);
+            }
+            int index = node.memberIds.binarySearch(memberId);
+            if (index < 0) {
+                node.memberIds.insert(-index - 1, memberId);
+            }
+        }
+    }
+
+    public void remove(int memberId) {
+        String name = names.remove(memberId);
+        if (name == null) {
+            return;
+        }
+        List<String> words = words(name);
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            if (words.subList(0, w).contains(word)) {
+                continue;
+            }
+            Node node = wordNodes.get(word);
+            int index = node == null ? -1 : node.memberIds.binarySearch(memberId);
+            if (index >= 0) {
+                node.memberIds.removeAt(index);
+            }
+            if (node != null && node.memberIds.isEmpty()) {
+                wordNodes.remove(word);
+                node.memberIds = null;
+                prune(word);
+            }
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    // Members with a name word starting with each query word, at most limit of them.
+    // Exact word matches come first, then the rest in alphabetical order of the word.
+    public int[] searchPrefix(String query, int limit) {
+        List<String> queryWords = words(query);
+        IntList result = new IntList();
+        if (queryWords.isEmpty() || limit <= 0) {
+            return result.toArray();
+        }
+        String longest = longest(queryWords);
+        Node node = find(longest);
+        if (node != null) {
+            collect(node, queryWords, longest, new HashSet<>(), result, limit);
+        }
+        return result.toArray();
+    }
+
+    // Members with a name word within a small edit distance of the query (one edit for words
+    // of 3-5 letters, two from 6; swapping adjacent letters counts as one edit), closest first.
+    // Like most fuzzy name searches it trusts the first letter, which keeps the walk to one
+    // branch of the trie.
+    public int[] searchFuzzy(String query, int limit) {
+        List<String> queryWords = words(query);
+        IntList result = new IntList();
+        if (queryWords.isEmpty() || limit <= 0) {
+            return result.toArray();
+        }
+        String longest = longest(queryWords);
+        int maxEdits = longest.length() < 3 ? 0 : longest.length() < 6 ? 1 : 2;
+        List<Match> matches = new ArrayList<>();
+        Node first = root.child(longest.charAt(0));
+        if (first != null) {
+            new FuzzySearch(longest.toCharArray(), maxEdits, matches).visit(first, longest.charAt(0), (char) 0, 1);
+        }
+        matches.sort((a, b) -> Integer.compare(a.distance, b.distance));
+        Set<Integer> seen = new HashSet<>();
+        for (Match match : matches) {
+            for (int i = 0; i < match.node.memberIds.size() && result.size() < limit; i++) {
+                int memberId = match.node.memberIds.get(i);
+                if (seen.add(memberId) && matchesOtherWords(memberId, queryWords, longest)) {
+                    result.add(memberId);
+                }
+            }
+        }
+        return result.toArray();
+    }
+
+    private void collect(Node node, List<String> queryWords, String indexedWord, Set<Integer> seen, IntList result, int limit) {
+        if (node.memberIds != null) {
+            for (int i = 0; i < node.memberIds.size() && result.size() < limit; i++) {
+                int memberId = node.memberIds.get(i);
+                if (seen.add(memberId) && matchesOtherWords(memberId, queryWords, indexedWord)) {
+                    result.add(memberId);
+                }
+            }
+        }
+        for (int i = 0; i < node.childCount && result.size() < limit; i++) {
+            collect(node.children[i], queryWords, indexedWord, seen, result, limit);
+        }
+    }
+
+    // The index is looked up by the longest query word; the others must prefix some name word
+    private boolean matchesOtherWords(int memberId, List<String> queryWords, String indexedWord) {
+        if (queryWords.size() == 1) {
+            return true;
+        }
+        List<String> nameWords = words(names.get(memberId));
+        boolean skipped = false;
+        for (String queryWord : queryWords) {
+            if (!skipped && queryWord.equals(indexedWord)) {
+                skipped = true;
+                continue;
+            }
+            boolean found = false;
+            for (String nameWord : nameWords) {
+                if (nameWord.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Removes the word's node, and then its ancestors, while they have no members and no children
+    private void prune(String word) {
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < word.length(); i++) {
+            path[i + 1] = path[i].child(word.charAt(i));
+        }
+        for (int i = word.length(); i > 0; i--) {
+            if (path[i].memberIds != null || path[i].childCount > 0) {
+                break;
+            }
+            path[i - 1].removeChild(word.charAt(i - 1));
+        }
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private static String longest(List<String> words) {
+        String longest = words.get(0);
+        for (String word : words) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        return longest;
+    }
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // Optimal string alignment distance, one trie level (one character of the word) at a
+    // time. Row d holds the distances between the first d characters of the word and each
+    // prefix of the query; rows are reused across branches at the same depth.
+    private static final class FuzzySearch {
+        private final char[] query;
+        private final int maxEdits;
+        private final List<Match> matches;
+        private int[][] rows;
+
+        FuzzySearch(char[] query, int maxEdits, List<Match> matches) {
+            this.query = query;
+            this.maxEdits = maxEdits;
+            this.matches = matches;
+            rows = new int[16][query.length + 1];
+            for (int i = 0; i <= query.length; i++) {
+                rows[0][i] = i;
+            }
+        }
+
+        void visit(Node node, char c, char previousChar, int depth) {
+            if (depth == rows.length) {
+                rows = Arrays.copyOf(rows, depth * 2);
+                for (int i = depth; i < rows.length; i++) {
+                    rows[i] = new int[query.length + 1];
+                }
+            }
+            int[] previousRow = rows[depth - 1];
+            int[] row = rows[depth];
+            row[0] = depth;
+            int rowMin = depth;
+            for (int i = 1; i <= query.length; i++) {
+                char q = query[i - 1];
+                int value = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + (q == c ? 0 : 1));
+                if (depth > 1 && i > 1 && q == previousChar && query[i - 2] == c) {
+                    value = Math.min(value, rows[depth - 2][i - 2] + 1);
+                }
+                row[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            int distance = row[query.length];
+            if (distance <= maxEdits && node.memberIds != null && !node.memberIds.isEmpty()) {
+                matches.add(new Match(node, distance));
+            }
+            // Distances only grow further down, transpositions included
+            if (rowMin <= maxEdits) {
+                for (int i = 0; i < node.childCount; i++) {
+                    visit(node.children[i], node.keys[i], c, depth + 1);
+                }
+            }
+        }
+    }
+
+    private static final class Match {
+        final Node node;
+        final int distance;
+
+        Match(Node node, int distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    // Children are kept sorted by character, so prefix results come out in alphabetical order
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        IntList memberIds; // members with a name word ending here
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            Node child = new Node();
+            keys[index] = c;
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index >= 0) {
+                System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                childCount--;
+                children[childCount] = null;
+            }
+        }
+    }
+}
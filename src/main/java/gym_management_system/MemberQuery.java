@@ -0,0 +1,83 @@
+package gym_management_system;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Objects;
+
+// Sort order and filters for browsing members page by page (see MemberManager.getMemberPage)
+public final class MemberQuery {
+    public enum SortKey { ID, NAME, AGE }
+
+    private final SortKey sortKey;
+    private final boolean ascending;
+    private final String status;     // null matches every status
+    private final String namePrefix; // matched case-insensitively; empty matches every name
+
+    public MemberQuery(SortKey sortKey, boolean ascending, String status, String namePrefix) {
+        this.sortKey = Objects.requireNonNull(sortKey);
+        this.ascending = ascending;
+        this.status = status;
+        this.namePrefix = namePrefix == null ? "" : namePrefix.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static MemberQuery all() {
+        return new MemberQuery(SortKey.ID, true, null, "");
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    boolean matches(Member member) {
+        return (status == null || status.equals(member.getStatus()))
+                && (namePrefix.isEmpty() || member.getName().toLowerCase(Locale.ROOT).startsWith(namePrefix));
+    }
+
+    Comparator<Member> comparator() {
+        Comparator<Member> comparator = comparator(sortKey);
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    // Ascending order by the key; IDs break ties, so no two members compare equal
+    static Comparator<Member> comparator(SortKey sortKey) {
+        switch (sortKey) {
+            case NAME:
+                return Comparator.comparing(Member::getName, String.CASE_INSENSITIVE_ORDER)
+                                 .thenComparingInt(Member::getId);
+            case AGE:
+                return Comparator.comparingInt(Member::getAge).thenComparingInt(Member::getId);
+            default:
+                return Comparator.comparingInt(Member::getId);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MemberQuery)) {
+            return false;
+        }
+        MemberQuery other = (MemberQuery) o;
+        return sortKey == other.sortKey && ascending == other.ascending
+                && Objects.equals(status, other.status) && namePrefix.equals(other.namePrefix);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortKey, ascending, status, namePrefix);
+    }
+}
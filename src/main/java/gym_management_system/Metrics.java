@@ -0,0 +1,163 @@
+package gym_management_system;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Latency histograms and counters for storage and lookup hot paths, plus the statistics of
+// the rendered view caches.
+//
+// Off by default. With -Dgym.metrics=true every metric is registered as a JMX MBean
+// (domain gym_management_system); adding -Dgym.metrics.dumpSeconds=N also appends a text
+// summary to metrics.log in the data directory every N seconds. When off, ENABLED is a
+// constant false, so the JIT removes the timing and counting calls entirely.
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("gym.metrics");
+    private static final String DUMP_FILE = "metrics.log";
+
+    // Storage
+    public static final LatencyHistogram MEMBERS_LOAD = histogram("storage.members.load");
+    public static final LatencyHistogram MEMBERS_SAVE = histogram("storage.members.save");
+    public static final LatencyHistogram WORKOUTS_LOAD = histogram("storage.workouts.load");
+    public static final LatencyHistogram WORKOUTS_SAVE = histogram("storage.workouts.save");
+    public static final LatencyHistogram JOURNAL_APPEND = histogram("storage.journal.append");
+    public static final Counter MEMBERS_LOADED = counter("storage.members.loaded");
+    public static final Counter MEMBERS_SAVED = counter("storage.members.saved");
+    public static final Counter WORKOUTS_LOADED = counter("storage.workouts.loaded");
+    public static final Counter WORKOUTS_SAVED = counter("storage.workouts.saved");
+    public static final Counter BYTES_WRITTEN = counter("storage.bytesWritten");
+    public static final Counter PARSE_FAILURES = counter("storage.parseFailures");
+    public static final Counter WRITE_FAILURES = counter("storage.writeFailures");
+
+    // Queries
+    public static final LatencyHistogram GET_MEMBER = histogram("members.getMember");
+    public static final LatencyHistogram SEARCH_MEMBERS = histogram("members.search");
+    public static final LatencyHistogram RECORD_WORKOUT = histogram("workouts.record");
+    public static final LatencyHistogram WORKOUT_HISTORY = histogram("workouts.history");
+
+    private static Map<String, Object> registry;
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    // Start time for LatencyHistogram.record; free when metrics are off
+    public static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static synchronized LatencyHistogram histogram(String name) {
+        return (LatencyHistogram) register(name, new LatencyHistogram(name), "Latency");
+    }
+
+    public static synchronized Counter counter(String name) {
+        return (Counter) register(name, new Counter(name), "Counter");
+    }
+
+    // Caches belong to a manager, so a newer manager's cache replaces the previous one
+    public static synchronized void register(String name, RenderCache cache) {
+        if (!ENABLED) {
+            return;
+        }
+        if (registry != null && registry.remove(name) != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name, "Cache"));
+            } catch (JMException e) {
+                // Was never registered
+            }
+        }
+        register(name, cache, "Cache");
+    }
+
+    // One line per metric, sorted by name
+    public static synchronized String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append(" metrics\n");
+        if (registry == null) {
+            return text.append("  (metrics are disabled, start with -Dgym.metrics=true)\n").toString();
+        }
+        for (Map.Entry<String, Object> entry : new TreeMap<>(registry).entrySet()) {
+            text.append("  ").append(entry.getKey()).append(' ');
+            if (entry.getValue() instanceof LatencyHistogram) {
+                LatencyHistogram histogram = (LatencyHistogram) entry.getValue();
+                text.append("count=").append(histogram.getCount())
+                    .append(" mean=").append(micros(histogram.getMeanMicros()))
+                    .append(" p50=").append(micros(histogram.getP50Micros()))
+                    .append(" p99=").append(micros(histogram.getP99Micros()))
+                    .append(" p99.9=").append(micros(histogram.getP999Micros()))
+                    .append(" max=").append(micros(histogram.getMaxMicros()));
+            } else if (entry.getValue() instanceof RenderCache) {
+                RenderCache cache = (RenderCache) entry.getValue();
+                text.append("hits=").append(cache.getHits())
+                    .append(" misses=").append(cache.getMisses())
+                    .append(" evictions=").append(cache.getEvictions())
+                    .append(" entries=").append(cache.getEntries())
+                    .append(" chars=").append(cache.getChars());
+            } else {
+                text.append(((Counter) entry.getValue()).getCount());
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private static Object register(String name, Object metric, String type) {
+        if (!ENABLED) {
+            return metric;
+        }
+        if (registry == null) {
+            registry = new ConcurrentHashMap<>();
+            startDumper();
+        }
+        Object existing = registry.putIfAbsent(name, metric);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(metric, objectName(name, type));
+        } catch (JMException e) {
+            System.err.println("Could not register metric " + name + " with JMX: " + e.getMessage());
+        }
+        return metric;
+    }
+
+    private static ObjectName objectName(String name, String type) throws JMException {
+        return new ObjectName("gym_management_system:type=" + type + ",name=" + name);
+    }
+
+    private static void startDumper() {
+        long seconds = Long.getLong("gym.metrics.dumpSeconds", 0);
+        if (seconds <= 0) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try (PrintWriter out = new PrintWriter(new FileWriter(DataStorage.dataFile(DUMP_FILE), true))) {
+                out.print(dump());
+            } catch (IOException e) {
+                System.err.println("Error writing metrics: " + e.getMessage());
+            }
+        }, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    private static String micros(double value) {
+        return value < 1000 ? Math.round(value * 10) / 10.0 + "us" : Math.round(value / 100) / 10.0 + "ms";
+    }
+}
@@ -0,0 +1,442 @@
+package gym_management_system;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+// Keeps member fields outside the Java heap, in direct buffers, so a very large member base
+// adds little for the garbage collector to trace. Each member has a fixed-size slot holding
+// its numeric fields; names live in a separate string area, which is compacted once renames
+// have left it more than half unused. Membership types and statuses repeat a lot, so each
+// distinct value is stored once on the heap and slots hold its code.
+// The store hands out Member handles whose getters and setters read and write the slot. A
+// handle is still a small heap object per member (it is a Member, so it has Member's fields,
+// unused); what moves off the heap is the strings and numbers it would otherwise point to.
+// Getters read optimistically and only take the read lock when a write got in the way, so
+// sorting and searching do not contend on a lock.
+// Slots are never reused: a removed member may still be read through an earlier snapshot.
+public class OffHeapMemberStore {
+    // Slot layout (bytes)
+    private static final int ID = 0;
+    private static final int AGE = 4;
+    private static final int HEIGHT = 8;
+    private static final int WEIGHT = 16;
+    private static final int BMI = 24;
+    private static final int JOIN_EPOCH_DAY = 32;
+    private static final int STATUS = 36;
+    private static final int MEMBERSHIP_TYPE = 38;
+    private static final int NAME_OFFSET = 40;
+    private static final int NAME_LENGTH = 44;
+    private static final int SLOT_SIZE = 48;
+    private static final int NO_STRING = -1;
+    private static final int STRINGS_CAPACITY = 64 * 1024;
+    // Join dates that are not yyyy-MM-dd are kept as text in unparsedJoinDates
+    private static final int UNPARSED_DAY = Integer.MIN_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+    private ByteBuffer slots = ByteBuffer.allocateDirect(1024 * SLOT_SIZE);
+    private ByteBuffer strings = ByteBuffer.allocateDirect(STRINGS_CAPACITY);
+    private int slotCount;
+    private int stringsEnd;
+    private int unusedStringBytes; // old names of renamed members
+    private volatile String[] codedValues = new String[0]; // replaced when a value is added
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final IntObjectMap<String> unparsedJoinDates = new IntObjectMap<>(); // by slot
+
+    // Copies the member into a slot and returns the handle that replaces it
+    public Member add(Member member) {
+        long stamp = lock.writeLock();
+        try {
+            if ((slotCount + 1) * SLOT_SIZE > slots.capacity()) {
+                slots = grow(slots, slots.capacity() * 2);
+            }
+            int slot = slotCount++;
+            int base = slot * SLOT_SIZE;
+            slots.putInt(base + ID, member.getId());
+            slots.putInt(base + AGE, member.getAge());
+            slots.putDouble(base + HEIGHT, member.getHeight());
+            slots.putDouble(base + WEIGHT, member.getWeight());
+            slots.putDouble(base + BMI, member.getBMI());
+            if (!putJoinDate(slot, member.getJoinDate())) {
+                System.err.println("Member " + member.getId() + " has a join date that is not yyyy-MM-dd, kept as text: "
+                        + member.getJoinDate());
+                Metrics.PARSE_FAILURES.increment();
+            }
+            slots.putShort(base + STATUS, code(member.getStatus()));
+            slots.putShort(base + MEMBERSHIP_TYPE, code(member.getMembershipType()));
+            putName(base, member.getName());
+            return new Handle(this, slot, member.getId());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slotCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Direct memory currently reserved by the store
+    public long getOffHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) slots.capacity() + strings.capacity();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Optimistic reads below may see a half-made change; bounds are checked so that they
+    // cannot fail, and the result is only used if no write happened meanwhile
+
+    private String getName(int slot) {
+        long stamp = lock.tryOptimisticRead();
+        String name = readName(slot);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                name = readName(slot);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return name;
+    }
+
+    private String readName(int slot) {
+        ByteBuffer currentSlots = slots;
+        ByteBuffer currentStrings = strings;
+        int base = slot * SLOT_SIZE;
+        if (base + SLOT_SIZE > currentSlots.capacity()) {
+            return null;
+        }
+        int length = currentSlots.getInt(base + NAME_LENGTH);
+        int offset = currentSlots.getInt(base + NAME_OFFSET);
+        if (length < 0 || offset < 0 || (long) offset + length > currentStrings.capacity()) {
+            return null; // NO_STRING, or a torn optimistic read
+        }
+        byte[] bytes = new byte[length];
+        currentStrings.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void setName(int slot, String name) {
+        long stamp = lock.writeLock();
+        try {
+            int base = slot * SLOT_SIZE;
+            int oldLength = slots.getInt(base + NAME_LENGTH);
+            if (oldLength != NO_STRING) {
+                unusedStringBytes += oldLength;
+            }
+            putName(base, name);
+            if (unusedStringBytes > STRINGS_CAPACITY && unusedStringBytes > stringsEnd / 2) {
+                compactStrings();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int getInt(int slot, int field) {
+        int offset = slot * SLOT_SIZE + field;
+        long stamp = lock.tryOptimisticRead();
+        ByteBuffer current = slots;
+        int value = offset + Integer.BYTES <= current.capacity() ? current.getInt(offset) : 0;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = slots.getInt(offset);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private void setInt(int slot, int field, int value) {
+        long stamp = lock.writeLock();
+        try {
+            slots.putInt(slot * SLOT_SIZE + field, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private double getDouble(int slot, int field) {
+        int offset = slot * SLOT_SIZE + field;
+        long stamp = lock.tryOptimisticRead();
+        ByteBuffer current = slots;
+        double value = offset + Double.BYTES <= current.capacity() ? current.getDouble(offset) : 0;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = slots.getDouble(offset);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private String getCoded(int slot, int field) {
+        int offset = slot * SLOT_SIZE + field;
+        long stamp = lock.tryOptimisticRead();
+        ByteBuffer current = slots;
+        short code = offset + Short.BYTES <= current.capacity() ? current.getShort(offset) : NO_STRING;
+        String[] values = codedValues;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                code = slots.getShort(offset);
+                values = codedValues;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return code == NO_STRING ? null : values[code];
+    }
+
+    private void setCoded(int slot, int field, String value) {
+        long stamp = lock.writeLock();
+        try {
+            slots.putShort(slot * SLOT_SIZE + field, code(value));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private String getJoinDate(int slot) {
+        int epochDay = getInt(slot, JOIN_EPOCH_DAY);
+        if (epochDay != UNPARSED_DAY) {
+            return LocalDate.ofEpochDay(epochDay).toString();
+        }
+        long stamp = lock.readLock();
+        try {
+            return unparsedJoinDates.get(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void setJoinDate(int slot, String joinDate) {
+        long stamp = lock.writeLock();
+        try {
+            putJoinDate(slot, joinDate);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Height, weight and BMI change together so readers never see them out of step
+    private void setBody(int slot, int field, double value) {
+        long stamp = lock.writeLock();
+        try {
+            int base = slot * SLOT_SIZE;
+            slots.putDouble(base + field, value);
+            double height = slots.getDouble(base + HEIGHT);
+            double weight = slots.getDouble(base + WEIGHT);
+            if (height > 0 && weight > 0) {
+                slots.putDouble(base + BMI, weight / (height * height));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // False if the date is not yyyy-MM-dd, in which case it is kept as text (null stays null)
+    private boolean putJoinDate(int slot, String joinDate) {
+        int epochDay = UNPARSED_DAY;
+        if (joinDate != null) {
+            try {
+                epochDay = (int) LocalDate.parse(joinDate).toEpochDay();
+            } catch (DateTimeParseException e) {
+                // kept as text below
+            }
+        }
+        slots.putInt(slot * SLOT_SIZE + JOIN_EPOCH_DAY, epochDay);
+        if (epochDay != UNPARSED_DAY || joinDate == null) {
+            unparsedJoinDates.remove(slot); // no entry reads as null
+            return true;
+        }
+        unparsedJoinDates.put(slot, joinDate);
+        return false;
+    }
+
+    private void putName(int base, String name) {
+        if (name == null) {
+            slots.putInt(base + NAME_OFFSET, 0);
+            slots.putInt(base + NAME_LENGTH, NO_STRING);
+            return;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (stringsEnd + bytes.length > strings.capacity()) {
+            strings = grow(strings, Math.max(strings.capacity() * 2, stringsEnd + bytes.length));
+        }
+        strings.put(stringsEnd, bytes);
+        slots.putInt(base + NAME_OFFSET, stringsEnd);
+        slots.putInt(base + NAME_LENGTH, bytes.length);
+        stringsEnd += bytes.length;
+    }
+
+    // Copies every slot's name into a new string area with no gaps. Runs only after renames
+    // have left as many unused bytes as are in use, so each rename pays for a bounded share.
+    private void compactStrings() {
+        int used = stringsEnd - unusedStringBytes;
+        ByteBuffer compacted = ByteBuffer.allocateDirect(Math.max(STRINGS_CAPACITY, used + used / 2));
+        int end = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slot * SLOT_SIZE;
+            int length = slots.getInt(base + NAME_LENGTH);
+            if (length != NO_STRING) {
+                compacted.put(end, strings, slots.getInt(base + NAME_OFFSET), length);
+                slots.putInt(base + NAME_OFFSET, end);
+                end += length;
+            }
+        }
+        strings = compacted;
+        stringsEnd = end;
+        unusedStringBytes = 0;
+    }
+
+    private short code(String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            if (codedValues.length == Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct membership types and statuses");
+            }
+            code = codedValues.length;
+            String[] values = Arrays.copyOf(codedValues, code + 1);
+            values[code] = value;
+            codedValues = values;
+            codes.put(value, code);
+        }
+        return code.shortValue();
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(0, buffer, 0, buffer.capacity());
+        return grown;
+    }
+
+    // Member view of one slot. The fields it inherits from Member stay empty apart from the ID.
+    private static final class Handle extends Member {
+        private final OffHeapMemberStore store;
+        private final int slot;
+
+        private Handle(OffHeapMemberStore store, int slot, int id) {
+            super(id);
+            this.store = store;
+            this.slot = slot;
+        }
+
+        @Override
+        public String getName() {
+            return store.getName(slot);
+        }
+
+        @Override
+        public void setName(String name) {
+            if (!Objects.equals(getName(), name)) {
+                store.setName(slot, name);
+                markDirty();
+            }
+        }
+
+        @Override
+        public int getAge() {
+            return store.getInt(slot, AGE);
+        }
+
+        @Override
+        public void setAge(int age) {
+            if (getAge() != age) {
+                store.setInt(slot, AGE, age);
+                markDirty();
+            }
+        }
+
+        @Override
+        public String getMembershipType() {
+            return store.getCoded(slot, MEMBERSHIP_TYPE);
+        }
+
+        @Override
+        public void setMembershipType(String membershipType) {
+            if (!Objects.equals(getMembershipType(), membershipType)) {
+                store.setCoded(slot, MEMBERSHIP_TYPE, membershipType);
+                markDirty();
+            }
+        }
+
+        @Override
+        public String getJoinDate() {
+            return store.getJoinDate(slot);
+        }
+
+        @Override
+        public void setJoinDate(String joinDate) {
+            if (!Objects.equals(getJoinDate(), joinDate)) {
+                store.setJoinDate(slot, joinDate);
+                markDirty();
+            }
+        }
+
+        @Override
+        public String getStatus() {
+            return store.getCoded(slot, STATUS);
+        }
+
+        @Override
+        public void setStatus(String status) {
+            if (!Objects.equals(getStatus(), status)) {
+                store.setCoded(slot, STATUS, status);
+                markDirty();
+            }
+        }
+
+        @Override
+        public double getHeight() {
+            return store.getDouble(slot, HEIGHT);
+        }
+
+        @Override
+        public void setHeight(double height) {
+            if (getHeight() != height) {
+                store.setBody(slot, HEIGHT, height);
+                markDirty();
+            }
+        }
+
+        @Override
+        public double getWeight() {
+            return store.getDouble(slot, WEIGHT);
+        }
+
+        @Override
+        public void setWeight(double weight) {
+            if (getWeight() != weight) {
+                store.setBody(slot, WEIGHT, weight);
+                markDirty();
+            }
+        }
+
+        @Override
+        public double getBMI() {
+            return store.getDouble(slot, BMI);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package gym_management_system;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+// Read-only observable list that fetches rows page by page on demand. A virtualized
+// TableView only asks for visible rows, so memory stays bounded by the page cache
+// no matter how many rows the source has.
+// Pages are fetched on the given executor, never on the FX thread: a row whose page is not
+// here yet reads as null, and is reported as replaced once the page arrives. Reading the
+// second half of a page also fetches the next one, so scrolling rarely shows empty rows.
+// Only used from the FX thread.
+public class PagedList<T> extends ObservableListBase<T> {
+    private static final int PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 8;
+
+    public interface PageSource<T> {
+        List<T> fetch(int offset, int limit);
+    }
+
+    private final PageSource<T> source;
+    private final Executor executor;
+    private final int size;
+    private final Set<Integer> fetching = new HashSet<>();
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    public PagedList(int size, PageSource<T> source, Executor executor) {
+        this.size = size;
+        this.source = source;
+        this.executor = executor;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int page = index / PAGE_SIZE;
+        int offset = index - page * PAGE_SIZE;
+        if (offset >= PAGE_SIZE / 2) {
+            fetch(page + 1);
+        }
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            fetch(page);
+            return null;
+        }
+        // The source may have shrunk since the size was taken
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    private void fetch(int page) {
+        if (page * PAGE_SIZE >= size || pages.containsKey(page) || !fetching.add(page)) {
+            return;
+        }
+        executor.execute(() -> {
+            List<T> rows;
+            try {
+                rows = source.fetch(page * PAGE_SIZE, PAGE_SIZE);
+            } catch (RuntimeException e) {
+                System.err.println("Error fetching rows: " + e.getMessage());
+                rows = List.of(); // shown as empty rows rather than fetched again on every layout
+            }
+            List<T> fetched = rows;
+            Platform.runLater(() -> arrived(page, fetched));
+        });
+    }
+
+    private void arrived(int page, List<T> rows) {
+        fetching.remove(page);
+        pages.put(page, rows);
+        int from = page * PAGE_SIZE;
+        int to = Math.min(size, from + PAGE_SIZE);
+        beginChange();
+        for (int index = from; index < to; index++) {
+            nextSet(index, null);
+        }
+        endChange();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
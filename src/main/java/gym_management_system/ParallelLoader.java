@@ -0,0 +1,139 @@
+package gym_management_system;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+// Splits large text data files into chunks that end on a "---" record separator line and
+// parses the chunks on a fork-join pool. Callers merge the per-chunk results in file order,
+// so records come out in the same order as a sequential read. Files under a few megabytes
+// are read in one piece. -Dgym.load.threads sets the number of threads (1 disables it).
+public final class ParallelLoader {
+    public static final int THREADS = Math.max(1, Integer.getInteger("gym.load.threads",
+            Runtime.getRuntime().availableProcessors()));
+    // Smaller chunks are not worth a task; a few chunks per thread even out uneven ones
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int WINDOW_SIZE = 8 * 1024;
+
+    private ParallelLoader() {
+    }
+
+    // Chunk start offsets followed by the file length; a single chunk when not worth splitting
+    public static long[] split(FileChannel channel) throws IOException {
+        long length = channel.size();
+        int chunks = (int) Math.min((long) THREADS * CHUNKS_PER_THREAD, length / MIN_CHUNK_BYTES);
+        if (THREADS == 1 || chunks <= 1) {
+            return new long[] {0, length};
+        }
+        List<Long> offsets = new ArrayList<>();
+        offsets.add(0L);
+        for (int i = 1; i < chunks; i++) {
+            long target = Math.max(length / chunks * i, offsets.get(offsets.size() - 1));
+            long boundary = nextRecordStart(channel, target, length);
+            if (boundary > offsets.get(offsets.size() - 1) && boundary < length) {
+                offsets.add(boundary);
+            }
+        }
+        offsets.add(length);
+        long[] result = new long[offsets.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = offsets.get(i);
+        }
+        return result;
+    }
+
+    public interface ChunkParser<T> {
+        T parse(long from, long to) throws IOException;
+    }
+
+    // Parses each chunk between consecutive offsets and returns the results in chunk order
+    public static <T> List<T> parse(long[] offsets, ChunkParser<T> parser) throws IOException {
+        int chunks = offsets.length - 1;
+        if (chunks == 1) {
+            return List.of(parser.parse(offsets[0], offsets[1]));
+        }
+        List<Callable<T>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long from = offsets[i];
+            long to = offsets[i + 1];
+            tasks.add(() -> parser.parse(from, to));
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(THREADS, chunks));
+        try {
+            List<T> results = new ArrayList<>(chunks);
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Runs independent steps, such as building separate indexes, at the same time
+    public static void runConcurrently(Runnable... steps) {
+        if (THREADS == 1) {
+            for (Runnable step : steps) {
+                step.run();
+            }
+            return;
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            tasks[i] = ForkJoinTask.adapt(steps[i]);
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    // Offset just after the first "---" line that starts after from, or the file length
+    private static long nextRecordStart(FileChannel channel, long from, long length) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+        // Start a byte early: a line starts at from only if a newline precedes it
+        long position = from - 1;
+        int lineLength = -1; // before the first newline, in a partial line
+        boolean separator = false;
+        while (position < length) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = window.get(i);
+                if (b == '\n') {
+                    if (separator && (lineLength == 3 || lineLength == 4)) {
+                        return position + i + 1;
+                    }
+                    lineLength = 0;
+                    separator = true;
+                } else if (lineLength >= 0) {
+                    // "---", optionally followed by \r
+                    separator &= lineLength < 3 ? b == '-' : lineLength == 3 && b == '\r';
+                    lineLength++;
+                }
+            }
+            position += read;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,94 @@
+package gym_management_system;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Runs disk writes on a dedicated background thread so callers (e.g. the JavaFX
+// application thread) never block on I/O. Writes submitted under the same key are
+// coalesced: a pending write is replaced by the newer one, keeping its queue position.
+public class PersistenceService {
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+    private final Thread writer;
+    private boolean running;
+    private boolean closed;
+
+    public PersistenceService() {
+        writer = new Thread(this::runWrites, "persistence-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Queues a write that may be superseded by a later write with the same key
+    public synchronized void submit(Object key, Runnable write) {
+        if (closed) {
+            throw new IllegalStateException("Persistence service is closed");
+        }
+        pending.put(key, write);
+        notifyAll();
+    }
+
+    // Queues a write that always runs, in submission order
+    public void execute(Runnable write) {
+        submit(new Object(), write);
+    }
+
+    // Blocks until every write submitted so far has completed
+    public synchronized void flush() {
+        boolean interrupted = false;
+        while (!pending.isEmpty() || running) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized boolean hasPendingWrites() {
+        return !pending.isEmpty() || running;
+    }
+
+    public void close() {
+        flush();
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    private void runWrites() {
+        while (true) {
+            Runnable write;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                Iterator<Runnable> next = pending.values().iterator();
+                write = next.next();
+                next.remove();
+                running = true;
+            }
+            try {
+                write.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error writing data: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    running = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package gym_management_system;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Growable UTF-8 byte buffer that text records are formatted into. It is meant to be reused
+// from record to record: numbers and dates are written digit by digit and strings encoded
+// in place, so formatting a record allocates nothing once the buffer is large enough.
+// The static parse methods read numbers and dates straight from byte ranges.
+public class RecordBuffer {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    // Powers of ten that are exact doubles, for exact decimal <-> double conversions
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private byte[] bytes;
+    private int size;
+
+    public RecordBuffer() {
+        this(8192);
+    }
+
+    public RecordBuffer(int capacity) {
+        bytes = new byte[Math.max(16, capacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The backing array; valid up to size()
+    public byte[] array() {
+        return bytes;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    public RecordBuffer append(String text) {
+        if (text == null) {
+            return append("null");
+        }
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[size++] = (byte) c;
+            } else {
+                i = appendNonAscii(text, i);
+            }
+        }
+        return this;
+    }
+
+    public RecordBuffer append(char c) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) c;
+        return this;
+    }
+
+    public RecordBuffer newLine() {
+        ensureCapacity(LINE_SEPARATOR.length);
+        for (byte b : LINE_SEPARATOR) {
+            bytes[size++] = b;
+        }
+        return this;
+    }
+
+    public RecordBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+        return this;
+    }
+
+    // Writes the shortest plain decimal that parses back to the same double, matching
+    // Double.toString ("70.0", "1.75") for the values the records hold
+    public RecordBuffer append(double value) {
+        if (value == 0 && Double.doubleToRawLongBits(value) == 0) {
+            return append("0.0");
+        }
+        int decimals = shortestDecimals(value);
+        if (decimals > 0) {
+            return appendScaled(Math.round(value * POWERS_OF_TEN[decimals]), decimals);
+        }
+        return append(Double.toString(value));
+    }
+
+    // Like String.format("%.2f") for decimals = 2, which rounds the shortest decimal form
+    // of the value half up
+    public RecordBuffer appendFixed(double value, int decimals) {
+        double magnitude = Math.abs(value);
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length || !(magnitude * POWERS_OF_TEN[decimals] < MAX_EXACT_MANTISSA)) {
+            return append(String.format("%." + decimals + "f", value));
+        }
+        long scaled;
+        int shortest = shortestDecimals(magnitude);
+        if (shortest > decimals) {
+            long digits = Math.round(magnitude * POWERS_OF_TEN[shortest]);
+            long unit = (long) POWERS_OF_TEN[shortest - decimals];
+            scaled = digits / unit + (digits % unit * 2 >= unit ? 1 : 0);
+        } else {
+            scaled = roundHalfUp(magnitude, POWERS_OF_TEN[decimals]);
+        }
+        if (value < 0 && scaled != 0) {
+            append('-');
+        }
+        return appendScaled(scaled, decimals);
+    }
+
+    // ISO date, as LocalDate.toString writes it
+    public RecordBuffer appendDate(int epochDay) {
+        // Civil-from-days (Howard Hinnant), the inverse of parseDate
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return append(LocalDate.ofEpochDay(epochDay).toString());
+        }
+        ensureCapacity(10);
+        appendPadded(year, 4);
+        bytes[size++] = '-';
+        appendPadded(month, 2);
+        bytes[size++] = '-';
+        appendPadded(day, 2);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    public static int parseInt(byte[] bytes, int from, int to) {
+        long value = parseLong(bytes, from, to);
+        if (value != (int) value) {
+            throw new NumberFormatException("Value out of range: \"" + text(bytes, from, to) + "\"");
+        }
+        return (int) value;
+    }
+
+    public static long parseLong(byte[] bytes, int from, int to) {
+        boolean negative = from < to && bytes[from] == '-';
+        int i = negative || (from < to && bytes[from] == '+') ? from + 1 : from;
+        if (i == to) {
+            throw new NumberFormatException("For input string: \"" + text(bytes, from, to) + "\"");
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException("For input string: \"" + text(bytes, from, to) + "\"");
+            }
+            // Accumulated negatively so Long.MIN_VALUE fits
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw new NumberFormatException("For input string: \"" + text(bytes, from, to) + "\"");
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    // Plain decimals of up to 15 digits are converted exactly here; anything else
+    // (exponents, long fractions) goes through Double.parseDouble
+    public static double parseDouble(byte[] bytes, int from, int to) {
+        boolean negative = from < to && bytes[from] == '-';
+        int i = negative ? from + 1 : from;
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < to; i++) {
+            byte b = bytes[i];
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b >= '0' && b <= '9' && digits < 15) {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                break;
+            }
+        }
+        if (i < to || digits == 0) {
+            return Double.parseDouble(text(bytes, from, to).trim());
+        }
+        double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        return negative ? -value : value;
+    }
+
+    // Epoch day of an ISO yyyy-MM-dd date; other forms go through LocalDate.parse
+    public static int parseDate(byte[] bytes, int from, int to) {
+        if (to - from != 10 || bytes[from + 4] != '-' || bytes[from + 7] != '-') {
+            return (int) LocalDate.parse(text(bytes, from, to)).toEpochDay();
+        }
+        int year = parseInt(bytes, from, from + 4);
+        int month = parseInt(bytes, from + 5, from + 7);
+        int day = parseInt(bytes, from + 8, from + 10);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            // Lets LocalDate report the invalid date
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        }
+        // Days-from-civil (Howard Hinnant)
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (int) (era * 146097 + dayOfEra - 719468);
+    }
+
+    // Fewest decimals (at least one) of a plain decimal that parses back to value, or -1
+    // when there is none short enough to check exactly
+    private static int shortestDecimals(double value) {
+        if (!(value >= 1e-3 && value < 1e7)) {
+            return -1;
+        }
+        for (int decimals = 1; decimals < POWERS_OF_TEN.length; decimals++) {
+            long scaled = Math.round(value * POWERS_OF_TEN[decimals]);
+            if (scaled >= MAX_EXACT_MANTISSA) {
+                break;
+            }
+            // Both operands are exact, so this is how the written digits parse back
+            if (scaled / POWERS_OF_TEN[decimals] == value) {
+                return decimals;
+            }
+        }
+        return -1;
+    }
+
+    // value * scale rounded half up, judged on the exact product rather than the rounded one
+    private static long roundHalfUp(double value, double scale) {
+        double product = value * scale;
+        long rounded = Math.round(product);
+        // Dekker's exact product: value * scale == product + error
+        double valueHigh = split(value);
+        double valueLow = value - valueHigh;
+        double scaleHigh = split(scale);
+        double scaleLow = scale - scaleHigh;
+        double error = ((valueHigh * scaleHigh - product) + valueHigh * scaleLow + valueLow * scaleHigh) + valueLow * scaleLow;
+        if ((product - (rounded - 0.5)) + error < 0) {
+            return rounded - 1;
+        }
+        if ((product - (rounded + 0.5)) + error >= 0) {
+            return rounded + 1;
+        }
+        return rounded;
+    }
+
+    private static double split(double value) {
+        double scaled = 134217729.0 * value; // 2^27 + 1
+        return scaled - (scaled - value);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private RecordBuffer appendScaled(long scaled, int decimals) {
+        long unit = (long) POWERS_OF_TEN[decimals];
+        append(scaled / unit);
+        if (decimals > 0) {
+            ensureCapacity(1 + decimals);
+            bytes[size++] = '.';
+            appendPadded(scaled % unit, decimals);
+        }
+        return this;
+    }
+
+    private void appendPadded(long value, int width) {
+        ensureCapacity(width);
+        for (int i = size + width - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += width;
+    }
+
+    // Encodes the character at index (and its low surrogate, if any); returns the last index used
+    private int appendNonAscii(String text, int index) {
+        int codePoint = text.codePointAt(index);
+        ensureCapacity(4);
+        if (codePoint < 0x800) {
+            bytes[size++] = (byte) (0xC0 | codePoint >> 6);
+        } else if (codePoint < 0x10000) {
+            if (Character.isSurrogate((char) codePoint)) {
+                codePoint = '?'; // unpaired surrogate, as String.getBytes replaces it
+                bytes[size++] = (byte) codePoint;
+                return index;
+            }
+            bytes[size++] = (byte) (0xE0 | codePoint >> 12);
+            bytes[size++] = (byte) (0x80 | (codePoint >> 6 & 0x3F));
+        } else {
+            bytes[size++] = (byte) (0xF0 | codePoint >> 18);
+            bytes[size++] = (byte) (0x80 | (codePoint >> 12 & 0x3F));
+            bytes[size++] = (byte) (0x80 | (codePoint >> 6 & 0x3F));
+        }
+        bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        return index + Character.charCount(codePoint) - 1;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+
+    private static String text(byte[] bytes, int from, int to) {
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package gym_management_system;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reads "Label: value" text records a line at a time from a reusable byte buffer. Numeric
+// values are parsed straight from the buffer, so only the String fields of a record
+// allocate. Lines end with \n or \r\n, as BufferedReader accepts them.
+public class RecordReader {
+    private final InputStream in;
+    private byte[] buffer = new byte[64 * 1024];
+    private int limit; // bytes read into buffer
+    private int next; // start of the next line
+    private int lineStart;
+    private int lineEnd; // excluding the line terminator
+    private long lineOffset; // of lineStart in the stream
+    private long consumed; // stream offset of buffer[0]
+    private long remaining; // bytes the reader may still take from the stream
+    private boolean eof;
+
+    public RecordReader(InputStream in) {
+        this(in, 0, Long.MAX_VALUE);
+    }
+
+    // Reads at most length bytes of a stream positioned at offset, which error messages count from
+    public RecordReader(InputStream in, long offset, long length) {
+        this.in = in;
+        this.consumed = offset;
+        this.remaining = length;
+    }
+
+    // Advances to the next line; false at the end of the input
+    public boolean nextLine() throws IOException {
+        int newline = indexOfNewline(next);
+        while (newline < 0 && !eof) {
+            fill();
+            newline = indexOfNewline(next);
+        }
+        if (newline < 0) {
+            if (next == limit) {
+                return false;
+            }
+            newline = limit; // last line without a terminator
+        }
+        lineStart = next;
+        lineEnd = newline > lineStart && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+        lineOffset = consumed + lineStart;
+        next = newline == limit ? limit : newline + 1;
+        return true;
+    }
+
+    // Advances to the next line, which must exist
+    public void expectLine() throws IOException {
+        if (!nextLine()) {
+            throw new EOFException("Unexpected end of file");
+        }
+    }
+
+    public boolean startsWith(byte[] label) {
+        if (lineEnd - lineStart < label.length) {
+            return false;
+        }
+        for (int i = 0; i < label.length; i++) {
+            if (buffer[lineStart + i] != label[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean lineEquals(byte[] text) {
+        return lineEnd - lineStart == text.length && startsWith(text);
+    }
+
+    public int intAfter(byte[] label) throws IOException {
+        return RecordBuffer.parseInt(buffer, valueStart(label), lineEnd);
+    }
+
+    // Parses the value after the label, ignoring the unit suffix if the line ends with it
+    public double doubleAfter(byte[] label, byte[] suffix) throws IOException {
+        int start = valueStart(label);
+        int end = lineEnd;
+        if (end - start >= suffix.length && Arrays.equals(buffer, end - suffix.length, end, suffix, 0, suffix.length)) {
+            end -= suffix.length;
+        }
+        return RecordBuffer.parseDouble(buffer, start, end);
+    }
+
+    public int dateAfter(byte[] label) throws IOException {
+        return RecordBuffer.parseDate(buffer, valueStart(label), lineEnd);
+    }
+
+    public String stringAfter(byte[] label) throws IOException {
+        int start = valueStart(label);
+        return new String(buffer, start, lineEnd - start, StandardCharsets.UTF_8);
+    }
+
+    public static byte[] label(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int valueStart(byte[] label) throws IOException {
+        if (!startsWith(label)) {
+            throw new IOException("Expected \"" + new String(label, StandardCharsets.UTF_8).trim() + "\" at byte " + lineOffset);
+        }
+        return lineStart + label.length;
+    }
+
+    private int indexOfNewline(int from) {
+        for (int i = from; i < limit; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Moves the unread bytes to the front, growing the buffer for very long lines, and reads more
+    private void fill() throws IOException {
+        if (next > 0) {
+            System.arraycopy(buffer, next, buffer, 0, limit - next);
+            consumed += next;
+            limit -= next;
+            next = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = remaining > 0 ? in.read(buffer, limit, (int) Math.min(buffer.length - limit, remaining)) : -1;
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+            remaining -= read;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package gym_management_system;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU cache of rendered text views (member details, workout histories), keyed by
+// member ID. Each entry remembers the object and version it was rendered from, so a view
+// is only returned while both still match; callers read the version before rendering,
+// which makes a change during rendering show up as stale on the next lookup. The total
+// size of the cached text is capped, evicting the least recently used views first.
+public class RenderCache implements RenderCacheMBean {
+    // About 4 MB of text per cache unless set with -Dgym.viewCache.chars
+    private static final long DEFAULT_MAX_CHARS = Long.getLong("gym.viewCache.chars", 2_000_000);
+
+    private final long maxChars;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long chars;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RenderCache() {
+        this(DEFAULT_MAX_CHARS);
+    }
+
+    public RenderCache(long maxChars) {
+        if (maxChars < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        this.maxChars = maxChars;
+    }
+
+    // The cached view, or null when there is none for this source and version
+    public synchronized String get(int key, Object source, long version) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.source == source && entry.version == version) {
+            hits++;
+            return entry.text;
+        }
+        if (entry != null) {
+            remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(int key, Object source, long version, String text) {
+        remove(key);
+        // A view larger than a quarter of the cache would push out too many others
+        if (text.length() > maxChars / 4) {
+            return;
+        }
+        entries.put(key, new Entry(source, version, text));
+        chars += text.length();
+        Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+        while (chars > maxChars && eldest.hasNext()) {
+            chars -= eldest.next().getValue().text.length();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(int key) {
+        remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        chars = 0;
+    }
+
+    @Override
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+
+    @Override
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getChars() {
+        return chars;
+    }
+
+    @Override
+    public long getMaxChars() {
+        return maxChars;
+    }
+
+    private void remove(int key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            chars -= entry.text.length();
+        }
+    }
+
+    private static final class Entry {
+        final Object source;
+        final long version;
+        final String text;
+
+        Entry(Object source, long version, String text) {
+            this.source = source;
+            this.version = version;
+            this.text = text;
+        }
+    }
+}
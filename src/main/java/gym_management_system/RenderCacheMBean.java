@@ -0,0 +1,20 @@
+package gym_management_system;
+
+// JMX view of a RenderCache
+public interface RenderCacheMBean {
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    double getHitRatio();
+
+    int getEntries();
+
+    long getChars();
+
+    long getMaxChars();
+
+    void clear();
+}
@@ -0,0 +1,382 @@
+package gym_management_system;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Workout list loaded from a text workouts file. Loading reads the file into one heap
+// buffer, scans it and decodes the numeric fields in place; exercise names are resolved to
+// ExerciseCatalog IDs through a byte-level lookup, so a name String is only created the
+// first time each distinct spelling is seen. Once loaded the list is read-only; it is a
+// source for scans through the column accessors, and get builds a new Workout each call.
+// The file is read rather than memory-mapped: a mapping stays open until the garbage
+// collector gets to it, and on Windows a mapped file cannot be replaced, which compaction
+// does right after loading. The buffer is dropped once loading is done.
+//
+// Large files are split at record separators and the chunks scanned in parallel (see
+// ParallelLoader), each into its own columns with its own exercise spellings. The chunks
+// are then joined in file order, registering their spellings with ExerciseCatalog in that
+// order, so the result is the same as scanning the file in one pass.
+public class ScannedWorkoutList extends AbstractList<Workout> implements RandomAccess {
+    private static final byte[] WORKOUT_ID = bytes("Workout ID: ");
+    private static final byte[] MEMBER_ID = bytes("Member ID: ");
+    private static final byte[] EXERCISE = bytes("Exercise: ");
+    private static final byte[] SETS = bytes("Sets: ");
+    private static final byte[] DATE = bytes("Date: ");
+    private static final byte[] SEPARATOR = bytes("---");
+    // A little under the length of a typical record, to size a chunk's columns up front
+    private static final int MIN_RECORD_BYTES = 64;
+
+    private ByteBuffer buffer; // the file's bytes, only while loading
+    private int[] ids;
+    private int[] memberIds;
+    private int[] sets;
+    private int[] epochDays;
+    private int[] exerciseIds;
+    private int size;
+
+    // Scan position, end of the current line and end of the chunk while loading
+    private int pos;
+    private int lineEnd;
+    private int end;
+    // Exercise spellings seen while loading: open-addressed by hash, pointing at their
+    // first occurrence in the buffer. Until the chunk is joined, exerciseIds holds indexes
+    // into spellingNames rather than catalog IDs.
+    private int[] spellingOffsets = new int[64];
+    private int[] spellingLengths = new int[64];
+    private int[] spellingIds = new int[64];
+    private List<String> spellingNames = new ArrayList<>();
+    private int emptySpelling = -1;
+    private String error; // the malformed record that ended this chunk's scan
+
+    private ScannedWorkoutList(ByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        ids = new int[capacity];
+        memberIds = new int[capacity];
+        sets = new int[capacity];
+        epochDays = new int[capacity];
+        exerciseIds = new int[capacity];
+    }
+
+    public static ScannedWorkoutList read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to read");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException(file + " shrank while being read");
+            }
+            List<ScannedWorkoutList> chunks = ParallelLoader.parse(ParallelLoader.split(channel), (from, to) -> {
+                ScannedWorkoutList chunk = new ScannedWorkoutList(buffer, (int) ((to - from) / MIN_RECORD_BYTES) + 16);
+                chunk.scan((int) from, (int) to);
+                return chunk;
+            });
+            return join(buffer, chunks);
+        }
+    }
+
+    // Concatenates the chunks up to and including the first one that hit a malformed record,
+    // where a single pass would have stopped too
+    private static ScannedWorkoutList join(ByteBuffer buffer, List<ScannedWorkoutList> chunks) {
+        int count = 0;
+        int total = 0;
+        while (count < chunks.size()) {
+            total += chunks.get(count++).size;
+            if (chunks.get(count - 1).error != null) {
+                System.err.println("Error loading workouts: " + chunks.get(count - 1).error);
+                Metrics.PARSE_FAILURES.increment();
+                break;
+            }
+        }
+        ScannedWorkoutList list = count == 1 ? chunks.get(0) : new ScannedWorkoutList(buffer, total);
+        int offset = 0;
+        for (ScannedWorkoutList chunk : chunks.subList(0, count)) {
+            int[] catalogIds = new int[chunk.spellingNames.size()];
+            for (int i = 0; i < catalogIds.length; i++) {
+                catalogIds[i] = ExerciseCatalog.idOf(chunk.spellingNames.get(i));
+            }
+            if (chunk != list) {
+                System.arraycopy(chunk.ids, 0, list.ids, offset, chunk.size);
+                System.arraycopy(chunk.memberIds, 0, list.memberIds, offset, chunk.size);
+                System.arraycopy(chunk.sets, 0, list.sets, offset, chunk.size);
+                System.arraycopy(chunk.epochDays, 0, list.epochDays, offset, chunk.size);
+            }
+            for (int i = 0; i < chunk.size; i++) {
+                list.exerciseIds[offset + i] = catalogIds[chunk.exerciseIds[i]];
+            }
+            offset += chunk.size;
+        }
+        list.size = total;
+        // Only needed while scanning
+        list.spellingNames = null;
+        list.buffer = null;
+        return list;
+    }
+
+    public int idAt(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    public int memberIdAt(int index) {
+        checkIndex(index);
+        return memberIds[index];
+    }
+
+    public int epochDayAt(int index) {
+        checkIndex(index);
+        return epochDays[index];
+    }
+
+    public int exerciseIdAt(int index) {
+        checkIndex(index);
+        return exerciseIds[index];
+    }
+
+    public int setsAt(int index) {
+        checkIndex(index);
+        return sets[index];
+    }
+
+    @Override
+    public Workout get(int index) {
+        checkIndex(index);
+        return new Workout(ids[index], memberIds[index], exerciseIds[index], sets[index], epochDays[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void scan(int from, int to) {
+        pos = from;
+        end = to;
+        while (pos < end) {
+            nextLine();
+            if (!startsWith(WORKOUT_ID)) {
+                pos = lineEnd + 1;
+                continue;
+            }
+            int start = pos;
+            try {
+                int id = parseInt(pos + WORKOUT_ID.length);
+                int memberId = parseInt(expectLine(MEMBER_ID));
+                int exerciseOffset = expectLine(EXERCISE);
+                int exerciseId = exerciseId(exerciseOffset, trimmedLineEnd() - exerciseOffset);
+                int setCount = parseInt(expectLine(SETS));
+                int epochDay = parseDate(expectLine(DATE));
+                expectLine(SEPARATOR);
+                pos = lineEnd + 1;
+
+                grow();
+                ids[size] = id;
+                memberIds[size] = memberId;
+                sets[size] = setCount;
+                epochDays[size] = epochDay;
+                exerciseIds[size] = exerciseId;
+                size++;
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                error = "malformed record at byte " + start + ": " + e.getMessage();
+                break;
+            }
+        }
+        // Only needed while scanning
+        spellingOffsets = null;
+        spellingLengths = null;
+        spellingIds = null;
+    }
+
+    // Index of the spelling in spellingNames, adding it when new
+    private int exerciseId(int offset, int length) {
+        // Empty names are never cached (a zero length marks a free slot)
+        if (length == 0) {
+            if (emptySpelling < 0) {
+                emptySpelling = spellingNames.size();
+                spellingNames.add("");
+            }
+            return emptySpelling;
+        }
+        int mask = spellingIds.length - 1;
+        int slot = hashBytes(offset, length) & mask;
+        while (spellingLengths[slot] > 0) {
+            if (sameBytes(spellingOffsets[slot], spellingLengths[slot], offset, length)) {
+                return spellingIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        byte[] name = new byte[length];
+        buffer.get(offset, name);
+        int id = spellingNames.size();
+        spellingNames.add(new String(name, StandardCharsets.UTF_8));
+        spellingOffsets[slot] = offset;
+        spellingLengths[slot] = length;
+        spellingIds[slot] = id;
+        if ((id + 1) * 2 > spellingIds.length) {
+            rehashSpellings();
+        }
+        return id;
+    }
+
+    private int hashBytes(int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean sameBytes(int offset, int length, int otherOffset, int otherLength) {
+        if (length != otherLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != buffer.get(otherOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehashSpellings() {
+        int[] oldOffsets = spellingOffsets;
+        int[] oldLengths = spellingLengths;
+        int[] oldIds = spellingIds;
+        spellingOffsets = new int[oldIds.length * 2];
+        spellingLengths = new int[oldIds.length * 2];
+        spellingIds = new int[oldIds.length * 2];
+        int mask = spellingIds.length - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldLengths[i] > 0) {
+                int slot = hashBytes(oldOffsets[i], oldLengths[i]) & mask;
+                while (spellingLengths[slot] > 0) {
+                    slot = (slot + 1) & mask;
+                }
+                spellingOffsets[slot] = oldOffsets[i];
+                spellingLengths[slot] = oldLengths[i];
+                spellingIds[slot] = oldIds[i];
+            }
+        }
+    }
+
+    // Advances to the next line, checks its label and returns the offset of the value
+    private int expectLine(byte[] label) {
+        pos = lineEnd + 1;
+        if (pos >= end) {
+            throw new IllegalStateException("unexpected end of file");
+        }
+        nextLine();
+        if (!startsWith(label)) {
+            throw new IllegalStateException("expected " + new String(label, StandardCharsets.UTF_8).trim());
+        }
+        return pos + label.length;
+    }
+
+    private void nextLine() {
+        int i = pos;
+        while (i < end && buffer.get(i) != '\n') {
+            i++;
+        }
+        lineEnd = i;
+    }
+
+    private int trimmedLineEnd() {
+        return lineEnd > pos && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    private boolean startsWith(byte[] prefix) {
+        if (lineEnd - pos < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(pos + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int from) {
+        int end = trimmedLineEnd();
+        boolean negative = from < end && buffer.get(from) == '-';
+        int i = negative ? from + 1 : from;
+        if (i >= end) {
+            throw new IllegalStateException("missing number");
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalStateException("invalid number");
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw new IllegalStateException("number out of range");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalStateException("number out of range");
+        }
+        return (int) value;
+    }
+
+    // Decodes an ISO yyyy-MM-dd date in place
+    private int parseDate(int from) {
+        if (trimmedLineEnd() - from != 10 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') {
+            throw new IllegalStateException("invalid date");
+        }
+        try {
+            return (int) LocalDate.of(digits(from, 4), digits(from + 5, 2), digits(from + 8, 2)).toEpochDay();
+        } catch (DateTimeException e) {
+            throw new IllegalStateException("invalid date");
+        }
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalStateException("invalid date");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void grow() {
+        if (size == ids.length) {
+            int capacity = size + (size >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            sets = Arrays.copyOf(sets, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            exerciseIds = Arrays.copyOf(exerciseIds, capacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,347 @@
+package gym_management_system;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Workout history split into shard files by member-ID range and month, e.g.
+// workouts/m1000-1999_2025-04.txt, listed in workouts/manifest.txt. Shards use the journal's
+// append-only record format, so recording a workout appends to one small file, and shards
+// are only read when a query first needs them. Selected with -Dgym.workouts.layout=sharded.
+//
+// The manifest caches each shard's record count, length and highest ID so opening does not
+// read the shards. It is written last when migrating an existing history, so a layout
+// without one is treated as not yet created. A shard whose length differs from the manifest
+// (after a crash) is scanned again and any torn record at its end cut off; one with a corrupt
+// record is cut before it, and the original kept as <shard>.<time>.corrupt. WorkoutManager
+// loads shards under its write lock, appends on the persistence thread, and only appends
+// to shards it has already loaded.
+public class ShardedWorkoutStorage {
+    private static final String DIRECTORY = "workouts";
+    private static final String MANIFEST_FILE = "manifest.txt";
+    private static final String MEMBERS_PER_SHARD = "Members per shard: ";
+    private static final Pattern SHARD_NAME = Pattern.compile("m(\\d+)-(\\d+)_(\\d{4}-\\d{2})\\.txt");
+    private static final int MIGRATION_BATCH_SIZE = 10000;
+
+    private final File directory = DataStorage.dataFile(DIRECTORY);
+    private final File manifestFile = new File(directory, MANIFEST_FILE);
+    private final Map<String, Shard> shards = new TreeMap<>(); // by file name
+    private final int membersPerShard;
+    private final boolean existed;
+    private int maxId;
+    private boolean migrating;
+    private volatile int unloadedShards;
+
+    public static boolean isSelected() {
+        return "sharded".equals(System.getProperty("gym.workouts.layout", "single"));
+    }
+
+    public ShardedWorkoutStorage() {
+        Map<String, long[]> manifest = new HashMap<>();
+        int perShard = Integer.getInteger("gym.workouts.shardMembers", 1000);
+        existed = manifestFile.exists();
+        if (existed) {
+            try {
+                List<String> lines = Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8);
+                perShard = Integer.parseInt(lines.get(0).substring(MEMBERS_PER_SHARD.length()));
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] fields = line.split(" ");
+                    // name, records, bytes, highest ID
+                    manifest.put(fields[0], new long[] {Long.parseLong(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3])});
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Cannot read workout manifest " + manifestFile + ": " + e.getMessage());
+            }
+        }
+        if (perShard <= 0) {
+            throw new IllegalArgumentException("Members per shard must be positive");
+        }
+        membersPerShard = perShard;
+
+        // Without a manifest the layout was never completed, and migrate() starts over
+        boolean stale = false;
+        File[] files = existed ? directory.listFiles() : null;
+        for (File file : files != null ? files : new File[0]) {
+            Matcher name = SHARD_NAME.matcher(file.getName());
+            if (!name.matches()) {
+                continue;
+            }
+            Shard shard = new Shard(file, Integer.parseInt(name.group(1)), YearMonth.parse(name.group(3)));
+            if (shard.firstMember % membersPerShard != 0) {
+                System.err.println("Ignoring workout shard with unexpected member range: " + file.getName());
+                continue;
+            }
+            long[] entry = manifest.get(file.getName());
+            if (entry != null && entry[1] == file.length()) {
+                shard.records = (int) entry[0];
+                shard.bytes = entry[1];
+                shard.maxId = (int) entry[2];
+            } else {
+                scan(shard);
+                stale = true;
+            }
+            shard.loaded = false;
+            shards.put(file.getName(), shard);
+            maxId = Math.max(maxId, shard.maxId);
+        }
+        unloadedShards = shards.size();
+        if (stale) {
+            writeManifest();
+        }
+    }
+
+    // False on the first start with this layout, when the history still has to be migrated
+    public boolean exists() {
+        return existed;
+    }
+
+    public synchronized int getMaxId() {
+        return maxId;
+    }
+
+    public boolean isFullyLoaded() {
+        return unloadedShards == 0;
+    }
+
+    // Each method returns the workouts of the matching shards not read before, and marks
+    // those shards loaded; callers add them to the in-memory history.
+    public List<Workout> loadAll() {
+        return load(shard -> true);
+    }
+
+    public List<Workout> loadMember(int memberId) {
+        int first = firstMemberOf(memberId);
+        return load(shard -> shard.firstMember == first);
+    }
+
+    public List<Workout> loadDays(int fromEpochDay, int toEpochDay) {
+        YearMonth from = YearMonth.from(LocalDate.ofEpochDay(fromEpochDay));
+        YearMonth to = YearMonth.from(LocalDate.ofEpochDay(toEpochDay));
+        return load(shard -> !shard.month.isBefore(from) && !shard.month.isAfter(to));
+    }
+
+    // Must be called before recording a workout for this member and day, so the shard's
+    // existing records are never read after new ones were appended to it
+    public synchronized List<Workout> loadShardOf(int memberId, int epochDay) {
+        Shard shard = shardFor(memberId, epochDay);
+        return shard.loaded ? List.of() : load(candidate -> candidate == shard);
+    }
+
+    // Appends each workout to its shard; every shard written is synced before returning. On
+    // failure every shard is cut back to its previous length, so the call can be retried.
+    public synchronized void append(List<Workout> workouts) {
+        Map<Shard, RecordBuffer> batches = new LinkedHashMap<>();
+        for (Workout workout : workouts) {
+            Shard shard = shardFor(workout.getMemberId(), workout.getEpochDay());
+            TextStorageCodec.writeWorkout(batches.computeIfAbsent(shard, s -> new RecordBuffer(1024)), workout);
+        }
+        List<Shard> touched = new ArrayList<>();
+        try {
+            for (Map.Entry<Shard, RecordBuffer> batch : batches.entrySet()) {
+                Shard shard = batch.getKey();
+                touched.add(shard);
+                long start = Metrics.startTimer();
+                try (FileChannel channel = FileChannel.open(shard.file.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer bytes = ByteBuffer.wrap(batch.getValue().array(), 0, batch.getValue().size());
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(false);
+                }
+                Metrics.BYTES_WRITTEN.add(batch.getValue().size());
+                Metrics.JOURNAL_APPEND.record(start);
+            }
+        } catch (IOException e) {
+            Metrics.WRITE_FAILURES.increment();
+            for (Shard shard : touched) {
+                try (FileChannel channel = FileChannel.open(shard.file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(shard.bytes);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+            }
+            throw new UncheckedIOException("Error appending to workout shard " + touched.get(touched.size() - 1).file.getName(), e);
+        }
+        boolean created = false;
+        for (Map.Entry<Shard, RecordBuffer> batch : batches.entrySet()) {
+            created |= batch.getKey().bytes == 0;
+            batch.getKey().bytes += batch.getValue().size();
+        }
+        for (Workout workout : workouts) {
+            Shard shard = shardFor(workout.getMemberId(), workout.getEpochDay());
+            shard.records++;
+            shard.maxId = Math.max(shard.maxId, workout.getId());
+            maxId = Math.max(maxId, workout.getId());
+        }
+        Metrics.WORKOUTS_SAVED.add(workouts.size());
+        // A new shard must be listed before a crash could hide it; counts can catch up later
+        if (created && !migrating) {
+            writeManifest();
+        }
+    }
+
+    // Writes an existing history out as shards on the first start with this layout. The
+    // manifest is written last, so an interrupted migration is redone from the start.
+    public synchronized void migrate(List<Workout> workouts) {
+        File[] leftovers = directory.listFiles();
+        for (File file : leftovers != null ? leftovers : new File[0]) {
+            if (SHARD_NAME.matcher(file.getName()).matches()) {
+                file.delete();
+            }
+        }
+        migrating = true;
+        try {
+            for (int from = 0; from < workouts.size(); from += MIGRATION_BATCH_SIZE) {
+                append(workouts.subList(from, Math.min(from + MIGRATION_BATCH_SIZE, workouts.size())));
+            }
+        } finally {
+            migrating = false;
+        }
+        writeManifest();
+    }
+
+    public synchronized void close() {
+        writeManifest();
+    }
+
+    private synchronized List<Workout> load(Predicate<Shard> selected) {
+        List<Workout> workouts = new ArrayList<>();
+        if (unloadedShards == 0) {
+            return workouts;
+        }
+        long start = Metrics.startTimer();
+        for (Shard shard : shards.values()) {
+            if (!shard.loaded && selected.test(shard)) {
+                // Shards not yet loaded were checked when opening, or match the manifest, so a
+                // shortfall means the file was damaged since
+                ScannedWorkoutList read;
+                try {
+                    read = ScannedWorkoutList.read(shard.file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading workout shard " + shard.file.getName(), e);
+                }
+                if (read.size() != shard.records) {
+                    System.err.println("Workout shard " + shard.file.getName() + " has " + read.size()
+                            + " readable records, expected " + shard.records);
+                    shard.records = read.size();
+                }
+                workouts.addAll(read);
+                shard.loaded = true;
+                unloadedShards--;
+            }
+        }
+        Metrics.WORKOUTS_LOADED.add(workouts.size());
+        Metrics.WORKOUTS_LOAD.record(start);
+        return workouts;
+    }
+
+    // Brings a shard's counts up to date and cuts off a torn record at its end. A shard with a
+    // record that cannot be read is cut before it too, after copying the whole file aside, so
+    // that the counts match what loading the shard later finds.
+    private void scan(Shard shard) {
+        WorkoutJournal.JournalContents contents = WorkoutJournal.readJournal(shard.file);
+        if (!contents.complete) {
+            File backup = new File(directory, shard.file.getName() + "." + System.currentTimeMillis() + ".corrupt");
+            try {
+                Files.copy(shard.file.toPath(), backup.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error saving corrupt workout shard " + shard.file.getName(), e);
+            }
+            System.err.println("Cutting workout shard " + shard.file.getName() + " before its first unreadable record;"
+                    + " the full file is saved as " + backup.getName());
+        } else if (shard.file.length() > contents.validLength) {
+            System.err.println("Discarding incomplete record at the end of " + shard.file);
+        }
+        if (shard.file.length() > contents.validLength) {
+            try (FileChannel channel = FileChannel.open(shard.file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(contents.validLength);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error truncating workout shard", e);
+            }
+        }
+        shard.records = contents.workouts.size();
+        shard.bytes = shard.file.length();
+        shard.maxId = 0;
+        for (Workout workout : contents.workouts) {
+            shard.maxId = Math.max(shard.maxId, workout.getId());
+        }
+    }
+
+    // New shards start out loaded: there is nothing on disk to read yet
+    private Shard shardFor(int memberId, int epochDay) {
+        int first = firstMemberOf(memberId);
+        YearMonth month = YearMonth.from(LocalDate.ofEpochDay(epochDay));
+        String name = "m" + first + "-" + (first + membersPerShard - 1) + "_" + month + ".txt";
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            directory.mkdirs();
+            shard = new Shard(new File(directory, name), first, month);
+            shards.put(name, shard);
+        }
+        return shard;
+    }
+
+    private int firstMemberOf(int memberId) {
+        return Math.floorDiv(memberId, membersPerShard) * membersPerShard;
+    }
+
+    private synchronized void writeManifest() {
+        directory.mkdirs();
+        File temp = new File(directory, MANIFEST_FILE + ".tmp");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(temp, StandardCharsets.UTF_8))) {
+            writer.println(MEMBERS_PER_SHARD + membersPerShard);
+            for (Shard shard : shards.values()) {
+                if (shard.bytes > 0) {
+                    writer.println(shard.file.getName() + " " + shard.records + " " + shard.bytes + " " + shard.maxId);
+                }
+            }
+            if (writer.checkError()) {
+                throw new IOException("Error writing " + temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving workout manifest: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error saving workout manifest: " + e.getMessage());
+        }
+    }
+
+    private static final class Shard {
+        final File file;
+        final int firstMember;
+        final YearMonth month;
+        int records;
+        long bytes;
+        int maxId;
+        boolean loaded = true;
+
+        Shard(File file, int firstMember, YearMonth month) {
+            this.file = file;
+            this.firstMember = firstMember;
+            this.month = month;
+        }
+    }
+}
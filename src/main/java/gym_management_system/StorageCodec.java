@@ -0,0 +1,31 @@
+package gym_management_system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+// On-disk encoding used by DataStorage. Readers append into the given list so that
+// records decoded before a failure are still returned to the caller.
+public interface StorageCodec {
+    String getFileExtension();
+
+    void writeMembers(List<Member> members, OutputStream out) throws IOException;
+
+    void readMembers(InputStream in, List<Member> members) throws IOException;
+
+    void writeWorkouts(List<Workout> workouts, OutputStream out) throws IOException;
+
+    void readWorkouts(InputStream in, List<Workout> workouts) throws IOException;
+
+    static StorageCodec forName(String name) {
+        switch (name) {
+            case "text":
+                return new TextStorageCodec();
+            case "binary":
+                return new BinaryStorageCodec();
+            default:
+                throw new IllegalArgumentException("Unknown storage format: " + name);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package gym_management_system;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Converts the data files between storage formats, e.g.
+//   java gym_management_system.StorageConverter text binary
+public class StorageConverter {
+
+    public static void convert(StorageCodec from, StorageCodec to) throws IOException {
+        List<Member> members = new ArrayList<>();
+        if (read(DataStorage.dataFile("members" + from.getFileExtension()), in -> from.readMembers(in, members))) {
+            write(DataStorage.dataFile("members" + to.getFileExtension()), out -> to.writeMembers(members, out));
+        }
+
+        List<Workout> workouts = new ArrayList<>();
+        if (read(DataStorage.dataFile("workouts" + from.getFileExtension()), in -> from.readWorkouts(in, workouts))) {
+            write(DataStorage.dataFile("workouts" + to.getFileExtension()), out -> to.writeWorkouts(workouts, out));
+        }
+        System.out.println("Converted " + members.size() + " members and " + workouts.size() + " workouts");
+    }
+
+    private static boolean read(File file, IOConsumer<InputStream> reader) throws IOException {
+        if (!file.exists()) {
+            System.err.println("Skipping " + file + " (not found)");
+            return false;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            reader.accept(in);
+        }
+        return true;
+    }
+
+    private static void write(File file, IOConsumer<OutputStream> writer) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writer.accept(out);
+        }
+    }
+
+    private interface IOConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: StorageConverter <text|binary> <text|binary>");
+            System.exit(1);
+        }
+        try {
+            convert(StorageCodec.forName(args[0]), StorageCodec.forName(args[1]));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Conversion failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package gym_management_system;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// The original human-readable "Label: value" format, one record per block separated by "---".
+// Records are formatted into and parsed from byte buffers, without per-field Strings.
+public class TextStorageCodec implements StorageCodec {
+    private static final byte[] MEMBER_ID = RecordReader.label("Member ID: ");
+    private static final byte[] NAME = RecordReader.label("Name: ");
+    private static final byte[] AGE = RecordReader.label("Age: ");
+    private static final byte[] MEMBERSHIP_TYPE = RecordReader.label("Membership Type: ");
+    private static final byte[] HEIGHT = RecordReader.label("Height: ");
+    private static final byte[] WEIGHT = RecordReader.label("Weight: ");
+    private static final byte[] JOIN_DATE = RecordReader.label("Join Date: ");
+    private static final byte[] STATUS = RecordReader.label("Status: ");
+    private static final byte[] METERS = RecordReader.label("m");
+    private static final byte[] KILOGRAMS = RecordReader.label("kg");
+    private static final byte[] WORKOUT_ID = RecordReader.label("Workout ID: ");
+    private static final byte[] EXERCISE = RecordReader.label("Exercise: ");
+    private static final byte[] SETS = RecordReader.label("Sets: ");
+    private static final byte[] DATE = RecordReader.label("Date: ");
+    private static final byte[] SEPARATOR = RecordReader.label("---");
+    // Records are formatted into one reused buffer and written out in chunks of this size
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    @Override
+    public String getFileExtension() {
+        return ".txt";
+    }
+
+    @Override
+    public void writeMembers(List<Member> members, OutputStream out) throws IOException {
+        RecordBuffer buffer = new RecordBuffer(FLUSH_SIZE + 1024);
+        for (Member member : members) {
+            writeMember(buffer, member);
+            flushIfFull(buffer, out);
+        }
+        buffer.writeTo(out);
+        out.flush();
+    }
+
+    public static void writeMember(RecordBuffer buffer, Member member) {
+        buffer.append("Member ID: ").append(member.getId()).newLine();
+        buffer.append("Name: ").append(member.getName()).newLine();
+        buffer.append("Age: ").append(member.getAge()).newLine();
+        buffer.append("Membership Type: ").append(member.getMembershipType()).newLine();
+        buffer.append("Height: ").append(member.getHeight()).append('m').newLine();
+        buffer.append("Weight: ").append(member.getWeight()).append("kg").newLine();
+        // Informational only, recalculated on load
+        buffer.append("BMI: ").appendFixed(member.getBMI(), 2).append(" (").append(member.getBMIStatus()).append(')').newLine();
+        buffer.append("Join Date: ").append(member.getJoinDate()).newLine();
+        buffer.append("Status: ").append(member.getStatus()).newLine();
+        buffer.append("---").newLine(); // Separator between members
+    }
+
+    @Override
+    public void readMembers(InputStream in, List<Member> members) throws IOException {
+        readMembers(new RecordReader(in), members);
+    }
+
+    // Reads a members file in chunks on ParallelLoader's threads. As with the stream reader,
+    // the members before a malformed record are kept and its error is then thrown.
+    public void readMembers(File file, List<Member> members) throws IOException {
+        long[] offsets;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            offsets = ParallelLoader.split(channel);
+        }
+        List<MemberChunk> chunks = ParallelLoader.parse(offsets, (from, to) -> {
+            MemberChunk chunk = new MemberChunk();
+            try (FileInputStream in = new FileInputStream(file)) {
+                in.getChannel().position(from);
+                readMembers(new RecordReader(in, from, to - from), chunk.members);
+            } catch (IOException | RuntimeException e) {
+                chunk.error = e;
+            }
+            return chunk;
+        });
+        for (MemberChunk chunk : chunks) {
+            members.addAll(chunk.members);
+            if (chunk.error instanceof IOException) {
+                throw (IOException) chunk.error;
+            } else if (chunk.error != null) {
+                throw (RuntimeException) chunk.error;
+            }
+        }
+    }
+
+    private void readMembers(RecordReader reader, List<Member> members) throws IOException {
+        while (reader.nextLine()) {
+            if (reader.startsWith(MEMBER_ID)) {
+                int id = reader.intAfter(MEMBER_ID);
+                reader.expectLine();
+                String name = reader.stringAfter(NAME);
+                reader.expectLine();
+                int age = reader.intAfter(AGE);
+                reader.expectLine();
+                String membershipType = reader.stringAfter(MEMBERSHIP_TYPE);
+                reader.expectLine();
+                double height = reader.doubleAfter(HEIGHT, METERS);
+                reader.expectLine();
+                double weight = reader.doubleAfter(WEIGHT, KILOGRAMS);
+                reader.expectLine(); // Skip BMI line as it will be recalculated
+                reader.expectLine();
+                String joinDate = reader.stringAfter(JOIN_DATE);
+                reader.expectLine();
+                String status = reader.stringAfter(STATUS);
+                reader.nextLine(); // Skip separator line
+
+                Member member = new Member(id, name, age, membershipType);
+                member.setHeight(height);
+                member.setWeight(weight);
+                member.setJoinDate(joinDate);
+                member.setStatus(status);
+                members.add(member);
+            }
+        }
+    }
+
+    @Override
+    public void writeWorkouts(List<Workout> workouts, OutputStream out) throws IOException {
+        RecordBuffer buffer = new RecordBuffer(FLUSH_SIZE + 1024);
+        for (Workout workout : workouts) {
+            writeWorkout(buffer, workout);
+            flushIfFull(buffer, out);
+        }
+        buffer.writeTo(out);
+        out.flush();
+    }
+
+    @Override
+    public void readWorkouts(InputStream in, List<Workout> workouts) throws IOException {
+        RecordReader reader = new RecordReader(in);
+        while (reader.nextLine()) {
+            if (reader.startsWith(WORKOUT_ID)) {
+                workouts.add(readWorkout(reader));
+            }
+        }
+    }
+
+    public static void writeWorkout(RecordBuffer buffer, Workout workout) {
+        buffer.append("Workout ID: ").append(workout.getId()).newLine();
+        buffer.append("Member ID: ").append(workout.getMemberId()).newLine();
+        buffer.append("Exercise: ").append(workout.getExercise()).newLine();
+        buffer.append("Sets: ").append(workout.getSets()).newLine();
+        buffer.append("Date: ").appendDate(workout.getEpochDay()).newLine();
+        buffer.append("---").newLine(); // Separator between workouts
+    }
+
+    // Reads a workout record whose "Workout ID" line is the reader's current line
+    static Workout readWorkout(RecordReader reader) throws IOException {
+        int id = reader.intAfter(WORKOUT_ID);
+        reader.expectLine();
+        int memberId = reader.intAfter(MEMBER_ID);
+        reader.expectLine();
+        int exerciseId = ExerciseCatalog.idOf(reader.stringAfter(EXERCISE));
+        reader.expectLine();
+        int sets = reader.intAfter(SETS);
+        reader.expectLine();
+        int epochDay = reader.dateAfter(DATE);
+        reader.expectLine();
+        if (!reader.lineEquals(SEPARATOR)) {
+            throw new IOException("Missing separator after workout " + id);
+        }
+        return new Workout(id, memberId, exerciseId, sets, epochDay);
+    }
+
+    private static final class MemberChunk {
+        final List<Member> members = new ArrayList<>();
+        Exception error;
+    }
+
+    private static void flushIfFull(RecordBuffer buffer, OutputStream out) throws IOException {
+        if (buffer.size() >= FLUSH_SIZE) {
+            buffer.writeTo(out);
+            buffer.clear();
+        }
+    }
+}
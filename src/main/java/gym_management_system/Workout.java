@@ -5,16 +5,24 @@ import java.time.LocalDate;
 public class Workout {
     private int id;
     private int memberId;
-    private String exercise;
+    private int exerciseId; // see ExerciseCatalog
     private int sets;
-    private String date;
+    private int epochDay; // days since 1970-01-01, see LocalDate.toEpochDay
 
     public Workout(int id, int memberId, String exercise, int sets) {
+        this(id, memberId, exercise, sets, (int) LocalDate.now().toEpochDay());
+    }
+
+    public Workout(int id, int memberId, String exercise, int sets, int epochDay) {
+        this(id, memberId, ExerciseCatalog.idOf(exercise), sets, epochDay);
+    }
+
+    public Workout(int id, int memberId, int exerciseId, int sets, int epochDay) {
         this.id = id;
         this.memberId = memberId;
-        this.exercise = exercise;
+        this.exerciseId = exerciseId;
         this.sets = sets;
-        this.date = LocalDate.now().toString();
+        this.epochDay = epochDay;
     }
 
     public Workout(String exercise, int sets) {
@@ -23,9 +31,9 @@ public class Workout {
 
     public Workout(int memberId, String exercise, int sets) {
         this.memberId = memberId;
-        this.exercise = exercise;
+        this.exerciseId = ExerciseCatalog.idOf(exercise);
         this.sets = sets;
-        this.date = LocalDate.now().toString();
+        this.epochDay = (int) LocalDate.now().toEpochDay();
     }
 
     // Getters and Setters
@@ -38,11 +46,15 @@ public class Workout {
     }
 
     public String getExercise() {
-        return exercise;
+        return ExerciseCatalog.nameOf(exerciseId);
+    }
+
+    public int getExerciseId() {
+        return exerciseId;
     }
 
     public void setExercise(String exercise) {
-        this.exercise = exercise;
+        this.exerciseId = ExerciseCatalog.idOf(exercise);
     }
 
     public int getSets() {
@@ -54,12 +66,29 @@ public class Workout {
     }
 
     public String getDate() {
-        return date;
+        return getLocalDate().toString();
+    }
+
+    public LocalDate getLocalDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    // Writes what toString returns, without intermediate Strings
+    public void appendTo(RecordBuffer buffer) {
+        buffer.append("Workout ID: ").append(id).append('\n')
+              .append("Exercise: ").append(getExercise()).append('\n')
+              .append("Sets: ").append(sets).append('\n')
+              .append("Date: ").appendDate(epochDay);
     }
 
     @Override
     public String toString() {
-        return String.format("Workout ID: %d\nExercise: %s\nSets: %d\nDate: %s",
-                id, exercise, sets, date);
+        RecordBuffer buffer = new RecordBuffer(96);
+        appendTo(buffer);
+        return buffer.toString();
     }
 } 
\ No newline at end of file
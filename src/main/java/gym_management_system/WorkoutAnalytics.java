@@ -0,0 +1,105 @@
+package gym_management_system;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Running gym statistics kept up to date from recordWorkout events, so dashboard
+// queries are lookups rather than scans over the workout history.
+public class WorkoutAnalytics implements WorkoutListener {
+    // Indexed by ExerciseCatalog ID
+    private long[] setsByExercise = new long[16];
+
+    private final LongLongMap memberExerciseSets = new LongLongMap(); // (member, exercise) -> sets
+    private final LongLongMap memberWeekSets = new LongLongMap();     // (member, week) -> sets
+    private final LongLongMap weekSets = new LongLongMap();           // week -> sets
+    private final LongLongMap memberDayWorkouts = new LongLongMap();  // (member, day) -> workouts
+    private final LongLongMap dayActiveMembers = new LongLongMap();   // day -> distinct members
+    private final LongLongMap weekActiveMembers = new LongLongMap();  // week -> distinct members
+    private long totalWorkouts;
+    private long totalSets;
+
+    @Override
+    public synchronized void workoutRecorded(Workout workout) {
+        int memberId = workout.getMemberId();
+        int sets = workout.getSets();
+        int exercise = workout.getExerciseId();
+        int day = workout.getEpochDay();
+        int week = weekOf(day);
+
+        totalWorkouts++;
+        totalSets += sets;
+        if (exercise >= setsByExercise.length) {
+            setsByExercise = Arrays.copyOf(setsByExercise, Math.max(exercise + 1, setsByExercise.length * 2));
+        }
+        setsByExercise[exercise] += sets;
+        memberExerciseSets.addTo(LongLongMap.key(memberId, exercise), sets);
+        weekSets.addTo(week, sets);
+        // A zero previous count means this is the member's first workout of that day/week
+        if (memberDayWorkouts.addTo(LongLongMap.key(memberId, day), 1) == 0) {
+            dayActiveMembers.addTo(day, 1);
+        }
+        if (memberWeekSets.addTo(LongLongMap.key(memberId, week), sets) == 0) {
+            weekActiveMembers.addTo(week, 1);
+        }
+    }
+
+    public synchronized long getTotalWorkouts() {
+        return totalWorkouts;
+    }
+
+    public synchronized long getTotalSets() {
+        return totalSets;
+    }
+
+    public synchronized long getSetsForExercise(String exercise) {
+        int id = ExerciseCatalog.find(exercise);
+        return id < 0 || id >= setsByExercise.length ? 0 : setsByExercise[id];
+    }
+
+    public synchronized long getMemberSetsForExercise(int memberId, String exercise) {
+        int id = ExerciseCatalog.find(exercise);
+        return id < 0 ? 0 : memberExerciseSets.get(LongLongMap.key(memberId, id));
+    }
+
+    // Total sets in the Monday-to-Sunday week containing the given day
+    public synchronized long getWeeklyVolume(LocalDate day) {
+        return weekSets.get(weekOf((int) day.toEpochDay()));
+    }
+
+    public synchronized long getMemberWeeklyVolume(int memberId, LocalDate day) {
+        return memberWeekSets.get(LongLongMap.key(memberId, weekOf((int) day.toEpochDay())));
+    }
+
+    public synchronized long getActiveMembers(LocalDate day) {
+        return dayActiveMembers.get(day.toEpochDay());
+    }
+
+    public synchronized long getActiveMembersInWeek(LocalDate day) {
+        return weekActiveMembers.get(weekOf((int) day.toEpochDay()));
+    }
+
+    // Exercises ordered by total sets; cost depends only on the number of distinct exercises
+    public synchronized Map<String, Long> getTopExercises(int limit) {
+        List<Integer> order = new ArrayList<>();
+        for (int id = 0; id < setsByExercise.length; id++) {
+            if (setsByExercise[id] > 0) {
+                order.add(id);
+            }
+        }
+        order.sort((a, b) -> Long.compare(setsByExercise[b], setsByExercise[a]));
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(limit, order.size()); i++) {
+            top.put(ExerciseCatalog.nameOf(order.get(i)), setsByExercise[order.get(i)]);
+        }
+        return top;
+    }
+
+    // Weeks start on Monday; epoch day 0 (1970-01-01) was a Thursday
+    private static int weekOf(int epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+}
@@ -0,0 +1,344 @@
+package gym_management_system;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams workouts from a CSV (memberId,exercise,sets[,date]) or JSON-lines
+// ({"memberId":3,"exercise":"bench","sets":2,"date":"2025-04-26"}) export into the
+// WorkoutManager in batches. CSV fields may be quoted as in RFC 4180, with "" for a quote
+// inside one, but a row must fit on one line. Dates are ISO yyyy-MM-dd; a missing, empty or
+// JSON null date means today.
+// Rows with unknown members or malformed fields are skipped and counted.
+public class WorkoutImporter {
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final MemberManager memberManager;
+    private final WorkoutManager workoutManager;
+    private final int batchSize;
+
+    public WorkoutImporter(MemberManager memberManager, WorkoutManager workoutManager, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.memberManager = memberManager;
+        this.workoutManager = workoutManager;
+        this.batchSize = batchSize;
+    }
+
+    public Result importFile(Path file) throws IOException {
+        boolean jsonLines = file.getFileName().toString().endsWith(".jsonl")
+                || file.getFileName().toString().endsWith(".ndjson");
+        Result result = new Result();
+        long start = System.nanoTime();
+        List<Workout> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && !jsonLines && isCsvHeader(line))) {
+                    continue;
+                }
+                try {
+                    Workout workout = jsonLines ? parseJsonLine(line) : parseCsvLine(line);
+                    if (!memberManager.hasMember(workout.getMemberId())) {
+                        throw new IllegalArgumentException("unknown member " + workout.getMemberId());
+                    }
+                    batch.add(workout);
+                } catch (IllegalArgumentException e) {
+                    result.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    flushBatch(batch, result);
+                }
+            }
+        }
+        flushBatch(batch, result);
+        workoutManager.flush();
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void flushBatch(List<Workout> batch, Result result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        workoutManager.recordWorkouts(batch);
+        result.imported += batch.size();
+        result.batches++;
+        batch.clear();
+    }
+
+    private static boolean isCsvHeader(String line) {
+        char first = line.trim().charAt(0);
+        return first != '-' && !Character.isDigit(first);
+    }
+
+    static Workout parseCsvLine(String line) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() != 3 && fields.size() != 4) {
+            throw new IllegalArgumentException("expected memberId,exercise,sets[,date]");
+        }
+        return newWorkout(parseInt(fields.get(0), "memberId"), fields.get(1).trim(), parseInt(fields.get(2), "sets"),
+                fields.size() == 4 ? fields.get(3) : null);
+    }
+
+    // Splits at commas outside quotes. A quoted field starts with a quote (after any spaces)
+    // and ends at the next single one; "" inside it stands for a quote, and only spaces may
+    // follow it.
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int pos = 0;
+        while (true) {
+            field.setLength(0);
+            // Unquoted fields are trimmed later anyway
+            while (pos < line.length() && line.charAt(pos) == ' ') {
+                pos++;
+            }
+            if (pos < line.length() && line.charAt(pos) == '"') {
+                pos++;
+                while (true) {
+                    if (pos >= line.length()) {
+                        throw new IllegalArgumentException("unterminated quoted field " + (fields.size() + 1));
+                    }
+                    char c = line.charAt(pos++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (pos < line.length() && line.charAt(pos) == '"') {
+                        field.append('"');
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                while (pos < line.length() && line.charAt(pos) == ' ') {
+                    pos++;
+                }
+                if (pos < line.length() && line.charAt(pos) != ',') {
+                    throw new IllegalArgumentException("unexpected text after quoted field " + (fields.size() + 1));
+                }
+            } else {
+                while (pos < line.length() && line.charAt(pos) != ',') {
+                    char c = line.charAt(pos++);
+                    if (c == '"') {
+                        throw new IllegalArgumentException("quote inside unquoted field " + (fields.size() + 1));
+                    }
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            if (pos >= line.length()) {
+                return fields;
+            }
+            pos++; // the comma
+        }
+    }
+
+    // Minimal reader for flat one-line JSON objects; unknown keys are ignored
+    static Workout parseJsonLine(String line) {
+        Integer memberId = null;
+        Integer sets = null;
+        String exercise = null;
+        String date = null;
+        int pos = skipWhitespace(line, 0);
+        if (pos >= line.length() || line.charAt(pos) != '{') {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        pos = skipWhitespace(line, pos + 1);
+        while (pos < line.length() && line.charAt(pos) != '}') {
+            StringBuilder key = new StringBuilder();
+            pos = readJsonString(line, pos, key);
+            pos = skipWhitespace(line, pos);
+            if (pos >= line.length() || line.charAt(pos) != ':') {
+                throw new IllegalArgumentException("expected ':' after \"" + key + "\"");
+            }
+            pos = skipWhitespace(line, pos + 1);
+            int valueStart = pos;
+            StringBuilder text = null;
+            if (pos < line.length() && line.charAt(pos) == '"') {
+                text = new StringBuilder();
+                pos = readJsonString(line, pos, text);
+            } else {
+                while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0) {
+                    pos++;
+                }
+            }
+            String value = text != null ? text.toString() : line.substring(valueStart, pos);
+            // A JSON null counts as leaving the key out
+            if (text != null || !value.equals("null")) {
+                switch (key.toString()) {
+                    case "memberId":
+                        memberId = parseInt(value, "memberId");
+                        break;
+                    case "exercise":
+                        exercise = value;
+                        break;
+                    case "sets":
+                        sets = parseInt(value, "sets");
+                        break;
+                    case "date":
+                        date = value;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            pos = skipWhitespace(line, pos);
+            if (pos < line.length() && line.charAt(pos) == ',') {
+                pos = skipWhitespace(line, pos + 1);
+            }
+        }
+        if (memberId == null || exercise == null || sets == null) {
+            throw new IllegalArgumentException("memberId, exercise and sets are required");
+        }
+        return newWorkout(memberId, exercise.trim(), sets, date);
+    }
+
+    private static Workout newWorkout(int memberId, String exercise, int sets, String date) {
+        if (exercise.isEmpty()) {
+            throw new IllegalArgumentException("exercise is empty");
+        }
+        if (sets < 1 || sets > 5) {
+            throw new IllegalArgumentException("sets must be between 1 and 5");
+        }
+        if (date == null || date.isBlank()) {
+            return new Workout(memberId, exercise, sets);
+        }
+        try {
+            return new Workout(0, memberId, exercise, sets, (int) LocalDate.parse(date.trim()).toEpochDay());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date is not yyyy-MM-dd: " + date.trim());
+        }
+    }
+
+    private static int readJsonString(String line, int pos, StringBuilder out) {
+        if (pos >= line.length() || line.charAt(pos) != '"') {
+            throw new IllegalArgumentException("expected a string at column " + (pos + 1));
+        }
+        for (int i = pos + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                switch (escaped) {
+                    case 'n':
+                        out.append('\n');
+                        break;
+                    case 't':
+                        out.append('\t');
+                        break;
+                    case 'r':
+                        out.append('\r');
+                        break;
+                    case 'b':
+                        out.append('\b');
+                        break;
+                    case 'f':
+                        out.append('\f');
+                        break;
+                    case 'u':
+                        out.append(unicodeEscape(line, i + 1));
+                        i += 4;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        out.append(escaped);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("invalid escape \\" + escaped + " at column " + i);
+                }
+            } else {
+                out.append(c);
+            }
+        }
+        throw new IllegalArgumentException("unterminated string");
+    }
+
+    // The character written as four hex digits starting at pos
+    private static char unicodeEscape(String line, int pos) {
+        if (pos + 4 > line.length()) {
+            throw new IllegalArgumentException("bad unicode escape at column " + (pos - 1));
+        }
+        int value = 0;
+        for (int i = pos; i < pos + 4; i++) {
+            char c = line.charAt(i);
+            int digit = c < 128 ? Character.digit(c, 16) : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("bad unicode escape at column " + (pos - 1));
+            }
+            value = value * 16 + digit;
+        }
+        return (char) value;
+    }
+
+    private static int skipWhitespace(String line, int pos) {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int parseInt(String value, String field) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value.trim());
+        }
+    }
+
+    public static class Result {
+        private long imported;
+        private long rejected;
+        private int batches;
+        private long elapsedNanos;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + reason);
+            }
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? (imported + rejected) * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Imported " + imported + " workouts in " + batches + " batches, rejected " + rejected
+                    + " rows (" + Math.round(getRowsPerSecond()) + " rows/sec, "
+                    + elapsedNanos / 1_000_000 + " ms)";
+        }
+    }
+}
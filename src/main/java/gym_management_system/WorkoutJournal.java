@@ -0,0 +1,265 @@
+package gym_management_system;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Append-only log of recorded workouts. The workouts data file acts as the snapshot and the
+// journal holds everything recorded since, until a compaction folds it back in.
+public class WorkoutJournal {
+    private static final String JOURNAL_FILE = "workouts.journal";
+    private static final String ROTATED_JOURNAL_FILE = "workouts.journal.old";
+    private static final int SYNC_BATCH_SIZE = 32;
+    private static final long SYNC_INTERVAL_MS = 200;
+    private static final int COMPACT_THRESHOLD = 5000;
+
+    private final File journalFile = file();
+    private final File rotatedFile = rotatedFile();
+    private final ScheduledExecutorService executor;
+    private FileChannel channel;
+    private final RecordBuffer buffer = new RecordBuffer(); // reused by appends, guarded by this
+    private int pendingSync;
+    private int recoveredRecords;
+    private boolean compacting;
+
+    public WorkoutJournal() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "workout-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::syncIfPending, SYNC_INTERVAL_MS, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Replays journalled workouts on top of the loaded snapshot. A torn record at the tail of the
+    // live journal is cut off so appends can continue; a journal left over from an interrupted
+    // compaction, or one that cannot be read to the end, is folded into a fresh snapshot instead.
+    public synchronized void recover(List<Workout> snapshot, int maxId) {
+        boolean compactNow = rotatedFile.exists();
+        maxId = addNewer(readJournal(rotatedFile).workouts, snapshot, maxId);
+        JournalContents live = readJournal(journalFile);
+        addNewer(live.workouts, snapshot, maxId);
+        compactNow |= !live.complete;
+
+        if (compactNow) {
+            if (!DataStorage.saveWorkoutsAtomically(snapshot)) {
+                throw new IllegalStateException("Could not compact recovered workout journal");
+            }
+            rotatedFile.delete();
+            journalFile.delete();
+        } else {
+            recoveredRecords = live.workouts.size();
+        }
+        openChannel();
+        try {
+            if (!compactNow && channel.size() > live.validLength) {
+                System.err.println("Discarding incomplete record at the end of " + journalFile);
+                channel.truncate(live.validLength);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error truncating workout journal", e);
+        }
+    }
+
+    // Records already in the live journal when it was recovered
+    public int getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    // Adds the journalled workouts to the history like recover, but only reads the journal
+    // files, for moving the history to another layout
+    public static void replay(List<Workout> snapshot, int maxId) {
+        maxId = addNewer(readJournal(rotatedFile()).workouts, snapshot, maxId);
+        addNewer(readJournal(file()).workouts, snapshot, maxId);
+    }
+
+    public static File file() {
+        return DataStorage.dataFile(JOURNAL_FILE);
+    }
+
+    // Present only while a compaction is in progress or was interrupted
+    public static File rotatedFile() {
+        return DataStorage.dataFile(ROTATED_JOURNAL_FILE);
+    }
+
+    // The compaction may have finished writing the snapshot before deleting the journal, so
+    // records the snapshot already has are skipped; returns the new highest ID
+    private static int addNewer(List<Workout> journalled, List<Workout> snapshot, int maxId) {
+        for (Workout workout : journalled) {
+            if (workout.getId() > maxId) {
+                snapshot.add(workout);
+                maxId = workout.getId();
+            }
+        }
+        return maxId;
+    }
+
+    public void append(Workout workout) {
+        appendAll(Collections.singletonList(workout));
+    }
+
+    // Writes the whole batch with a single write call. If that fails, whatever part of the
+    // batch reached the file is cut off again, so the batch can be retried as a whole.
+    public synchronized void appendAll(List<Workout> workouts) {
+        buffer.clear();
+        for (Workout workout : workouts) {
+            TextStorageCodec.writeWorkout(buffer, workout);
+        }
+        long start = Metrics.startTimer();
+        long length = -1;
+        try {
+            length = channel.size();
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.array(), 0, buffer.size());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            Metrics.BYTES_WRITTEN.add(bytes.limit());
+            Metrics.JOURNAL_APPEND.record(start);
+            pendingSync += workouts.size();
+            if (pendingSync >= SYNC_BATCH_SIZE) {
+                sync();
+            }
+        } catch (IOException e) {
+            Metrics.WRITE_FAILURES.increment();
+            if (length >= 0) {
+                try {
+                    channel.truncate(length);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+            }
+            throw new UncheckedIOException("Error appending to workout journal", e);
+        }
+    }
+
+    // Whether a journal holding journalRecords of the historySize workouts should be folded
+    // into the workouts file. It may grow to a third of the history first, so bulk imports
+    // do not rewrite an ever larger file every few thousand records.
+    public boolean needsCompaction(int journalRecords, int historySize) {
+        return journalRecords >= Math.max(COMPACT_THRESHOLD, (historySize - journalRecords) / 2);
+    }
+
+    // Rotates the journal and writes the snapshot on the background thread; false if a
+    // previous compaction is still running or unfinished. The snapshot must contain exactly
+    // the workouts recorded before this call.
+    public synchronized boolean compact(List<Workout> snapshot) {
+        if (compacting || rotatedFile.exists()) {
+            return false;
+        }
+        try {
+            sync();
+            channel.close();
+            if (!journalFile.renameTo(rotatedFile)) {
+                throw new IOException("Could not rotate " + journalFile);
+            }
+        } catch (IOException e) {
+            System.err.println("Error compacting workout journal: " + e.getMessage());
+            openChannel();
+            return false;
+        }
+        openChannel();
+        compacting = true;
+        executor.execute(() -> {
+            if (DataStorage.saveWorkoutsAtomically(snapshot)) {
+                rotatedFile.delete();
+            }
+            synchronized (this) {
+                compacting = false;
+            }
+        });
+        return true;
+    }
+
+    public void close() {
+        // Waits for an in-flight compaction, so this must not hold the journal lock
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                sync();
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing workout journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void syncIfPending() {
+        try {
+            if (pendingSync > 0 && channel.isOpen()) {
+                sync();
+            }
+        } catch (IOException e) {
+            System.err.println("Error syncing workout journal: " + e.getMessage());
+        }
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        pendingSync = 0;
+    }
+
+    private void openChannel() {
+        try {
+            channel = FileChannel.open(journalFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening workout journal", e);
+        }
+    }
+
+    // Also reads workout shards, which use the same append-only record format
+    static JournalContents readJournal(File file) {
+        JournalContents contents = new JournalContents();
+        if (!file.exists()) {
+            return contents;
+        }
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading workout journal", e);
+        }
+        // Only records terminated by their "---" line were completely written
+        IntList recordEnds = new IntList();
+        for (int lineStart = 0, i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                int lineEnd = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                if (lineEnd - lineStart == 3 && bytes[lineStart] == '-' && bytes[lineStart + 1] == '-' && bytes[lineStart + 2] == '-') {
+                    contents.validLength = i + 1;
+                    recordEnds.add(i + 1);
+                }
+                lineStart = i + 1;
+            }
+        }
+        try {
+            new TextStorageCodec().readWorkouts(new ByteArrayInputStream(bytes, 0, contents.validLength), contents.workouts);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Workout journal " + file + " is corrupt, keeping the records before it: " + e.getMessage());
+            Metrics.PARSE_FAILURES.increment();
+            contents.complete = false;
+            // Then only the records that were read are valid
+            int read = contents.workouts.size();
+            contents.validLength = read == 0 ? 0 : recordEnds.get(read - 1);
+        }
+        return contents;
+    }
+
+    static class JournalContents {
+        final List<Workout> workouts = new ArrayList<>();
+        int validLength; // length of the records read
+        boolean complete = true;
+    }
+}
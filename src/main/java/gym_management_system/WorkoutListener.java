@@ -0,0 +1,7 @@
+package gym_management_system;
+
+// Notified of every recorded workout, in recording order, while WorkoutManager holds its
+// write lock. Implementations must be quick and must not call back into WorkoutManager.
+public interface WorkoutListener {
+    void workoutRecorded(Workout workout);
+}
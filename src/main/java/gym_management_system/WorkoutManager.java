@@ -1,46 +1,517 @@
 package gym_management_system;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
+// Safe to share between threads. Appends take the write lock, queries the read lock;
+// query results are copies, so callers never see the lists change underneath them.
 public class WorkoutManager {
-    private List<Workout> workouts;
+    // Columnar, so history costs no object per workout; Workout objects are built for results
+    private ColumnarWorkoutStore workouts;
+    // Positions into workouts, read through the primitive columns to build the indexes.
+    // Each member's positions are kept in date order; workoutsByDay buckets positions per day.
+    private IntObjectMap<IntList> workoutsByMember;
+    private TreeMap<Integer, IntList> workoutsByDay;
     private MemberManager memberManager;
-    private int nextWorkoutId;
+    private WorkoutJournal journal;
+    // Set with -Dgym.workouts.layout=sharded; replaces the journal and workouts file, and
+    // history is then read a shard at a time as queries first need it
+    private ShardedWorkoutStorage shards;
+    private PersistenceService persistence;
+    // Records queued for the journal since the last compaction was requested, guarded by
+    // the write lock. Counted here rather than by the writer, so a burst of queued records
+    // requests exactly one compaction however far behind the writer is.
+    private int journalRecords;
+    private volatile boolean compactionSkipped; // set by the writer when it could not start one
+    // Workouts whose journal or shard write failed, written ahead of the next batch. Only touched on
+    // the persistence thread; writeFailure is the last error, cleared once they are written.
+    private List<Workout> unwritten = new ArrayList<>();
+    private volatile UncheckedIOException writeFailure;
+    private final AtomicInteger nextWorkoutId;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<WorkoutListener> listeners = new CopyOnWriteArrayList<>();
+    // Rendered getWorkoutHistory text. History only grows, so the member's workout count
+    // is its version; recording also drops the entry right away.
+    private final RenderCache historyViews = new RenderCache();
 
     public WorkoutManager(MemberManager memberManager) {
         this.memberManager = memberManager;
-        this.workouts = DataStorage.loadWorkouts();
-        this.nextWorkoutId = workouts.stream()
-                                   .mapToInt(Workout::getId)
-                                   .max()
-                                   .orElse(0) + 1;
+        this.persistence = memberManager.getPersistenceService();
+        if (ShardedWorkoutStorage.isSelected()) {
+            this.shards = new ShardedWorkoutStorage();
+            if (shards.exists()) {
+                this.workouts = new ColumnarWorkoutStore();
+                this.workoutsByMember = new IntObjectMap<>();
+                this.workoutsByDay = new TreeMap<>();
+            } else {
+                // First start with shards: split the existing history, which stays loaded
+                loadSingleFile();
+                shards.migrate(workouts);
+                retireSingleFile();
+            }
+            this.nextWorkoutId = new AtomicInteger(shards.getMaxId() + 1);
+        } else {
+            this.journal = new WorkoutJournal();
+            this.nextWorkoutId = new AtomicInteger(loadSingleFile() + 1);
+        }
+        Metrics.register("cache.historyViews", historyViews);
+    }
+
+    // Loads the workouts file (or its snapshot) and the journal, returning the highest ID.
+    // Without a journal open (when migrating to shards) the journal files are only read.
+    private int loadSingleFile() {
+        int maxId = 0;
+        WorkoutSnapshot snapshot = WorkoutSnapshot.load(snapshotSources());
+        if (snapshot != null) {
+            this.workouts = snapshot.workouts;
+            this.workoutsByMember = snapshot.workoutsByMember;
+            this.workoutsByDay = snapshot.workoutsByDay;
+            maxId = snapshot.maxId;
+        } else {
+            this.workouts = ColumnarWorkoutStore.copyOf(DataStorage.loadWorkouts());
+            this.workoutsByMember = new IntObjectMap<>();
+            this.workoutsByDay = new TreeMap<>();
+            // The two indexes are independent, so they are built at the same time
+            ParallelLoader.runConcurrently(() -> {
+                for (int i = 0; i < workouts.size(); i++) {
+                    indexByMember(i);
+                }
+            }, () -> {
+                for (int i = 0; i < workouts.size(); i++) {
+                    indexByDay(i);
+                }
+            });
+            for (int i = 0; i < workouts.size(); i++) {
+                maxId = Math.max(maxId, idAt(i));
+            }
+        }
+        int loaded = workouts.size();
+        if (journal != null) {
+            journal.recover(workouts, maxId);
+            journalRecords = journal.getRecoveredRecords();
+        } else {
+            WorkoutJournal.replay(workouts, maxId);
+        }
+        for (int i = loaded; i < workouts.size(); i++) {
+            indexWorkout(i);
+            maxId = Math.max(maxId, idAt(i));
+        }
+        return maxId;
     }
 
     public void recordWorkout(int memberId, String exercise, int sets) {
+        long start = Metrics.startTimer();
         try {
             // Verify member exists
             memberManager.getMember(memberId);
-            
-            // Create and save workout
-            Workout workout = new Workout(nextWorkoutId++, memberId, exercise, sets);
-            workouts.add(workout);
-            DataStorage.saveWorkouts(workouts);
+            // Spelling variants of an exercise share one catalog entry
+            int exerciseId = ExerciseCatalog.idOf(exercise);
+            int epochDay = (int) LocalDate.now().toEpochDay();
+
+            // Create and save workout. IDs are allocated under the lock so that the
+            // journal receives workouts in ID order.
+            lock.writeLock().lock();
+            try {
+                if (shards != null) {
+                    addLoaded(shards.loadShardOf(memberId, epochDay));
+                }
+                Workout workout = new Workout(nextWorkoutId.getAndIncrement(), memberId, exerciseId, sets, epochDay);
+                workouts.add(workout);
+                indexWorkout(workouts.size() - 1);
+                notifyListeners(workout);
+                historyViews.invalidate(memberId);
+                persist(Collections.singletonList(workout));
+            } finally {
+                lock.writeLock().unlock();
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to record workout: " + e.getMessage());
+        } finally {
+            Metrics.RECORD_WORKOUT.record(start);
+        }
+    }
+
+    // Records a batch of workouts (IDs are assigned here, dates are kept as given) and
+    // journals them with a single write. Every member must exist; nothing is recorded otherwise.
+    public List<Workout> recordWorkouts(List<Workout> batch) {
+        for (Workout workout : batch) {
+            if (!memberManager.hasMember(workout.getMemberId())) {
+                throw new IllegalArgumentException("Member not found with ID: " + workout.getMemberId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            List<Workout> recorded = new ArrayList<>(batch.size());
+            for (Workout pending : batch) {
+                if (shards != null) {
+                    addLoaded(shards.loadShardOf(pending.getMemberId(), pending.getEpochDay()));
+                }
+                Workout workout = new Workout(nextWorkoutId.getAndIncrement(), pending.getMemberId(),
+                        pending.getExerciseId(), pending.getSets(), pending.getEpochDay());
+                workouts.add(workout);
+                indexWorkout(workouts.size() - 1);
+                notifyListeners(workout);
+                historyViews.invalidate(workout.getMemberId());
+                recorded.add(workout);
+            }
+            persist(recorded);
+            return recorded;
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
+    // Replays every existing workout to the listener, then keeps it informed of new ones.
+    // Both happen under the write lock, so the listener sees each workout exactly once.
+    public void subscribe(WorkoutListener listener) {
+        loadShards(ShardedWorkoutStorage::loadAll);
+        lock.writeLock().lock();
+        try {
+            ColumnarWorkoutStore.Cursor cursor = workouts.cursor();
+            while (cursor.next()) {
+                listener.workoutRecorded(cursor.toWorkout());
+            }
+            listeners.add(listener);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unsubscribe(WorkoutListener listener) {
+        listeners.remove(listener);
+    }
+
     public String getWorkoutHistory(int memberId) {
-        StringBuilder history = new StringBuilder();
-        workouts.stream()
-                .filter(w -> w.getMemberId() == memberId)
-                .forEach(w -> history.append(w.toString()).append("\n\n"));
-        
-        return history.length() > 0 ? history.toString() : "No workout history found.";
+        long start = Metrics.startTimer();
+        loadShards(storage -> storage.loadMember(memberId));
+        IntList positions;
+        int count;
+        List<Workout> memberWorkouts;
+        lock.readLock().lock();
+        try {
+            positions = workoutsByMember.get(memberId);
+            count = positions != null ? positions.size() : 0;
+            String cached = historyViews.get(memberId, positions, count);
+            if (cached != null) {
+                Metrics.WORKOUT_HISTORY.record(start);
+                return cached;
+            }
+            memberWorkouts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                memberWorkouts.add(workouts.get(positions.get(i)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Rendered outside the lock and cached under the count read with the workouts
+        RecordBuffer history = new RecordBuffer(memberWorkouts.size() * 80);
+        for (Workout workout : memberWorkouts) {
+            workout.appendTo(history);
+            history.append("\n\n");
+        }
+        String text = history.size() > 0 ? history.toString() : "No workout history found.";
+        historyViews.put(memberId, positions, count, text);
+        Metrics.WORKOUT_HISTORY.record(start);
+        return text;
+    }
+
+    public List<Workout> getWorkoutsForMember(int memberId) {
+        return getWorkoutsForMember(memberId, 0, Integer.MAX_VALUE);
+    }
+
+    // Returns at most limit workouts for the member, starting at offset, in date order
+    public List<Workout> getWorkoutsForMember(int memberId, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        loadShards(storage -> storage.loadMember(memberId));
+        lock.readLock().lock();
+        try {
+            IntList positions = workoutsByMember.get(memberId);
+            if (positions == null) {
+                return Collections.emptyList();
+            }
+            int from = Math.min(offset, positions.size());
+            int to = (int) Math.min((long) from + limit, positions.size());
+            List<Workout> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(workouts.get(positions.get(i)));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The member's workouts dated from..to inclusive: O(log k + results) for k member workouts
+    public List<Workout> getWorkoutsForMember(int memberId, LocalDate from, LocalDate to) {
+        loadShards(storage -> storage.loadMember(memberId));
+        lock.readLock().lock();
+        try {
+            IntList positions = workoutsByMember.get(memberId);
+            if (positions == null) {
+                return Collections.emptyList();
+            }
+            int toDay = (int) to.toEpochDay();
+            List<Workout> result = new ArrayList<>();
+            for (int i = firstOnOrAfter(positions, (int) from.toEpochDay()); i < positions.size(); i++) {
+                int position = positions.get(i);
+                if (epochDayAt(position) > toDay) {
+                    break;
+                }
+                result.add(workouts.get(position));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All workouts dated from..to inclusive, ordered by date: O(log days + results)
+    public List<Workout> getWorkoutsBetween(LocalDate from, LocalDate to) {
+        if (!from.isAfter(to)) {
+            loadShards(storage -> storage.loadDays((int) from.toEpochDay(), (int) to.toEpochDay()));
+        }
+        lock.readLock().lock();
+        try {
+            List<Workout> result = new ArrayList<>();
+            if (from.isAfter(to)) {
+                return result;
+            }
+            for (IntList day : workoutsByDay.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true).values()) {
+                for (int i = 0; i < day.size(); i++) {
+                    result.add(workouts.get(day.get(i)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getWorkoutCount(int memberId) {
+        loadShards(storage -> storage.loadMember(memberId));
+        lock.readLock().lock();
+        try {
+            IntList positions = workoutsByMember.get(memberId);
+            return positions != null ? positions.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public List<Workout> getWorkouts() {
-        return new ArrayList<>(workouts);
+        loadShards(ShardedWorkoutStorage::loadAll);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(workouts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Queues recorded workouts for writing. Called under the write lock, so they reach the
+    // journal or shards in ID order.
+    private void persist(List<Workout> recorded) {
+        if (shards != null) {
+            persistence.execute(() -> writeRecorded(recorded, null));
+            return;
+        }
+        // The compaction snapshot is taken here, in order with the appends queued before it
+        journalRecords += recorded.size();
+        List<Workout> compactionSnapshot = null;
+        if (compactionSkipped || journal.needsCompaction(journalRecords, workouts.size())) {
+            compactionSnapshot = snapshot();
+            compactionSkipped = false;
+            journalRecords = 0;
+        }
+        List<Workout> snapshotToWrite = compactionSnapshot;
+        persistence.execute(() -> writeRecorded(recorded, snapshotToWrite));
+    }
+
+    // Runs on the persistence thread. Workouts are already in memory and reported as
+    // recorded, so a batch that cannot be written is kept and retried ahead of the next
+    // one, and flush() and close() report the failure until it has been written.
+    private void writeRecorded(List<Workout> recorded, List<Workout> compactionSnapshot) {
+        unwritten.addAll(recorded);
+        try {
+            if (shards != null) {
+                shards.append(unwritten);
+            } else {
+                journal.appendAll(unwritten);
+            }
+            unwritten = new ArrayList<>();
+            writeFailure = null;
+        } catch (UncheckedIOException e) {
+            System.err.println("Error writing workouts, " + unwritten.size() + " will be retried: " + e.getMessage());
+            writeFailure = e;
+            // The snapshot would not match the journal; the next batch requests another
+            compactionSkipped |= compactionSnapshot != null;
+            return;
+        }
+        if (compactionSnapshot != null && !journal.compact(compactionSnapshot)) {
+            compactionSkipped = true;
+        }
+    }
+
+    // Fails if workouts could not be written to the journal, after retrying them once
+    private void checkWritten() {
+        if (writeFailure != null) {
+            persistence.execute(() -> writeRecorded(Collections.emptyList(), null));
+            persistence.flush();
+        }
+        UncheckedIOException failure = writeFailure;
+        if (failure != null) {
+            throw new UncheckedIOException("Recorded workouts could not be saved: " + failure.getCause().getMessage(), failure.getCause());
+        }
+    }
+
+    // Reads the shards a query needs, if any are still on disk
+    private void loadShards(Function<ShardedWorkoutStorage, List<Workout>> loader) {
+        if (shards == null || shards.isFullyLoaded()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addLoaded(loader.apply(shards));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLoaded(List<Workout> loaded) {
+        for (Workout workout : loaded) {
+            workouts.add(workout);
+            indexWorkout(workouts.size() - 1);
+        }
+    }
+
+    private void indexWorkout(int position) {
+        indexByMember(position);
+        indexByDay(position);
+    }
+
+    private void indexByMember(int position) {
+        int memberId = memberIdAt(position);
+        int epochDay = epochDayAt(position);
+        IntList positions = workoutsByMember.get(memberId);
+        if (positions == null) {
+            positions = new IntList(4);
+            workoutsByMember.put(memberId, positions);
+        }
+        // Workouts nearly always arrive in date order, making this an append
+        positions.insert(firstOnOrAfter(positions, epochDay + 1), position);
+    }
+
+    private void indexByDay(int position) {
+        workoutsByDay.computeIfAbsent(epochDayAt(position), day -> new IntList(4)).add(position);
+    }
+
+    // Index of the first entry in the date-ordered positions dated on or after epochDay
+    private int firstOnOrAfter(IntList positions, int epochDay) {
+        int low = 0;
+        int high = positions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDayAt(positions.get(mid)) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void notifyListeners(Workout workout) {
+        for (WorkoutListener listener : listeners) {
+            listener.workoutRecorded(workout);
+        }
+    }
+
+    private int idAt(int index) {
+        return workouts.idAt(index);
+    }
+
+    private int memberIdAt(int index) {
+        return workouts.memberIdAt(index);
+    }
+
+    private int epochDayAt(int index) {
+        return workouts.epochDayAt(index);
+    }
+
+    private List<Workout> snapshot() {
+        return workouts.snapshot();
+    }
+
+    // Blocks until every recorded workout has been written to the journal, and throws if
+    // some could not be
+    public void flush() {
+        persistence.flush();
+        checkWritten();
+    }
+
+    // Saves a snapshot for the next start once the journal is final. Throws after closing
+    // if some recorded workouts could not be written to the journal.
+    public void close() {
+        persistence.flush();
+        UncheckedIOException failure = null;
+        try {
+            checkWritten();
+        } catch (UncheckedIOException e) {
+            failure = e;
+        }
+        if (shards != null) {
+            shards.close();
+            if (failure != null) {
+                throw failure;
+            }
+            return;
+        }
+        journal.close();
+        // Without the journal the snapshot would stand in for workouts that are not on disk
+        if (failure != null) {
+            throw failure;
+        }
+        lock.readLock().lock();
+        try {
+            WorkoutSnapshot.save(snapshotSources(), workouts, workoutsByMember, workoutsByDay, nextWorkoutId.get() - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The files a snapshot stands in for; it is only valid while all of them are unchanged
+    private static List<File> snapshotSources() {
+        return List.of(DataStorage.workoutsFile(), WorkoutJournal.file(), WorkoutJournal.rotatedFile());
+    }
+
+    // Renames the single-file history to *.migrated once it is in shards, so it is kept
+    // but can no longer be mistaken for the live history
+    private static void retireSingleFile() {
+        List<File> files = new ArrayList<>(snapshotSources());
+        files.add(WorkoutSnapshot.file());
+        for (File file : files) {
+            if (file.exists()) {
+                try {
+                    Files.move(file.toPath(), new File(file.getPath() + ".migrated").toPath(),
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    System.err.println("Could not rename " + file + " after moving it to shards: " + e.getMessage());
+                }
+            }
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,242 @@
+package gym_management_system;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+// Workout history and its indexes saved in the layout WorkoutManager keeps in memory, so a
+// warm start reads raw int columns instead of parsing the data file and rebuilding indexes.
+// The snapshot records the length and checksum of the files it was built from (the
+// workouts file and the journal) and is only used while they are unchanged.
+//
+// Layout: magic, version, source fingerprints, exercise names, row count and highest ID,
+// the five columns, per-member and per-day position lists, then a checksum of it all.
+public class WorkoutSnapshot {
+    private static final String SNAPSHOT_FILE = "workouts.snapshot";
+    private static final int MAGIC = 0x47594D53; // "GYMS"
+    private static final short VERSION = 1;
+
+    final ColumnarWorkoutStore workouts;
+    final IntObjectMap<IntList> workoutsByMember;
+    final TreeMap<Integer, IntList> workoutsByDay;
+    final int maxId;
+
+    private WorkoutSnapshot(ColumnarWorkoutStore workouts, IntObjectMap<IntList> workoutsByMember,
+                            TreeMap<Integer, IntList> workoutsByDay, int maxId) {
+        this.workouts = workouts;
+        this.workoutsByMember = workoutsByMember;
+        this.workoutsByDay = workoutsByDay;
+        this.maxId = maxId;
+    }
+
+    public static File file() {
+        return DataStorage.dataFile(SNAPSHOT_FILE);
+    }
+
+    // Returns null when there is no usable snapshot for the current source files
+    static WorkoutSnapshot load(List<File> sources) {
+        File file = file();
+        if (!file.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE || channel.size() < Long.BYTES) {
+                throw new IOException("unexpected size " + channel.size());
+            }
+            // Read rather than mapped, so the file can be replaced on close on every platform
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            buffer.flip();
+            int payloadLength = buffer.limit() - Long.BYTES;
+            if (checksum(buffer.slice(0, payloadLength)) != buffer.getLong(payloadLength)) {
+                throw new IOException("checksum mismatch");
+            }
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IOException("unsupported format");
+            }
+            int sourceCount = buffer.getInt();
+            if (sourceCount != sources.size()) {
+                return null;
+            }
+            for (File source : sources) {
+                long length = buffer.getLong();
+                long crc = buffer.getLong();
+                if (length != length(source) || crc != checksum(source)) {
+                    return null;
+                }
+            }
+
+            // Exercise IDs are process-wide, so the snapshot's IDs are mapped onto this run's
+            int[] exerciseIds = new int[buffer.getInt()];
+            for (int i = 0; i < exerciseIds.length; i++) {
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                exerciseIds[i] = ExerciseCatalog.idOf(new String(name, StandardCharsets.UTF_8));
+            }
+
+            int rows = buffer.getInt();
+            int maxId = buffer.getInt();
+            IntBuffer[] columns = new IntBuffer[ColumnarWorkoutStore.COLUMN_COUNT];
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = buffer.slice(buffer.position(), rows * Integer.BYTES).asIntBuffer();
+                buffer.position(buffer.position() + rows * Integer.BYTES);
+            }
+            int[] exerciseColumn = new int[rows];
+            columns[ColumnarWorkoutStore.EXERCISE_ID_COLUMN].get(exerciseColumn);
+            for (int i = 0; i < rows; i++) {
+                exerciseColumn[i] = exerciseIds[exerciseColumn[i]];
+            }
+            columns[ColumnarWorkoutStore.EXERCISE_ID_COLUMN] = IntBuffer.wrap(exerciseColumn);
+            ColumnarWorkoutStore workouts = new ColumnarWorkoutStore();
+            workouts.appendColumns(rows, columns);
+
+            int memberCount = buffer.getInt();
+            IntObjectMap<IntList> workoutsByMember = new IntObjectMap<>(memberCount);
+            for (int i = 0; i < memberCount; i++) {
+                int memberId = buffer.getInt();
+                workoutsByMember.put(memberId, readPositions(buffer));
+            }
+            int dayCount = buffer.getInt();
+            TreeMap<Integer, IntList> workoutsByDay = new TreeMap<>();
+            for (int i = 0; i < dayCount; i++) {
+                int day = buffer.getInt();
+                workoutsByDay.put(day, readPositions(buffer));
+            }
+            return new WorkoutSnapshot(workouts, workoutsByMember, workoutsByDay, maxId);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring workout snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Called once the source files are final (after the journal is closed)
+    static void save(List<File> sources, ColumnarWorkoutStore workouts, IntObjectMap<IntList> workoutsByMember,
+                     TreeMap<Integer, IntList> workoutsByDay, int maxId) {
+        List<byte[]> exerciseNames = new ArrayList<>();
+        long size = Integer.BYTES + Short.BYTES + Integer.BYTES + (long) sources.size() * 2 * Long.BYTES + Integer.BYTES;
+        for (String name : ExerciseCatalog.names()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                System.err.println("Not saving workout snapshot: exercise name too long");
+                return;
+            }
+            exerciseNames.add(bytes);
+            size += Short.BYTES + bytes.length;
+        }
+        int rows = workouts.size();
+        size += 2 * Integer.BYTES + (long) ColumnarWorkoutStore.COLUMN_COUNT * rows * Integer.BYTES;
+        long[] indexBytes = new long[1];
+        workoutsByMember.forEach((memberId, positions) -> indexBytes[0] += 2 * Integer.BYTES + (long) positions.size() * Integer.BYTES);
+        for (IntList positions : workoutsByDay.values()) {
+            indexBytes[0] += 2 * Integer.BYTES + (long) positions.size() * Integer.BYTES;
+        }
+        size += 2 * Integer.BYTES + indexBytes[0] + Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            System.err.println("Not saving workout snapshot: history too large for one file");
+            return;
+        }
+
+        File target = file();
+        File temp = DataStorage.dataFile(SNAPSHOT_FILE + ".tmp");
+        temp.delete();
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putInt(sources.size());
+            for (File source : sources) {
+                buffer.putLong(length(source));
+                buffer.putLong(checksum(source));
+            }
+            buffer.putInt(exerciseNames.size());
+            for (byte[] name : exerciseNames) {
+                buffer.putShort((short) name.length);
+                buffer.put(name);
+            }
+            buffer.putInt(rows);
+            buffer.putInt(maxId);
+            for (int column = 0; column < ColumnarWorkoutStore.COLUMN_COUNT; column++) {
+                workouts.getColumn(column, buffer.slice(buffer.position(), rows * Integer.BYTES).asIntBuffer());
+                buffer.position(buffer.position() + rows * Integer.BYTES);
+            }
+            buffer.putInt(workoutsByMember.size());
+            workoutsByMember.forEach((memberId, positions) -> {
+                buffer.putInt(memberId);
+                writePositions(buffer, positions);
+            });
+            buffer.putInt(workoutsByDay.size());
+            for (Map.Entry<Integer, IntList> day : workoutsByDay.entrySet()) {
+                buffer.putInt(day.getKey());
+                writePositions(buffer, day.getValue());
+            }
+            buffer.putLong(checksum(buffer.slice(0, buffer.position())));
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error saving workout snapshot: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error saving workout snapshot: " + e.getMessage());
+        }
+    }
+
+    private static IntList readPositions(ByteBuffer buffer) {
+        int[] positions = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(positions);
+        buffer.position(buffer.position() + positions.length * Integer.BYTES);
+        return IntList.wrap(positions);
+    }
+
+    private static void writePositions(ByteBuffer buffer, IntList positions) {
+        buffer.putInt(positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            buffer.putInt(positions.get(i));
+        }
+    }
+
+    private static long length(File source) {
+        return source.exists() ? source.length() : -1;
+    }
+
+    private static long checksum(File source) throws IOException {
+        if (!source.exists()) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            CRC32C crc = new CRC32C();
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20);
+            while (channel.read(chunk) >= 0) {
+                chunk.flip();
+                crc.update(chunk);
+                chunk.clear();
+            }
+            return crc.getValue();
+        }
+    }
+
+    private static long checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
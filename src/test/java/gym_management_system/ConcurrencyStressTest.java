@@ -0,0 +1,156 @@
+package gym_management_system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// Several threads record workouts, register members and deactivate members against one pair
+// of managers; afterwards, and again after reloading from disk, every ID must be unique and
+// every change accounted for.
+class ConcurrencyStressTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 300;
+    private static final int SEEDED_MEMBERS = 40;
+    private static final String[] EXERCISES = {"Bench Press", "Squat", "Deadlift", "Row"};
+
+    @TempDir
+    Path dataDir;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("gym.data.dir");
+        System.clearProperty("gym.workouts.layout");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"single", "sharded"})
+    void concurrentChangesSurviveReload(String layout) throws Exception {
+        System.setProperty("gym.data.dir", dataDir.toString());
+        System.setProperty("gym.workouts.layout", layout);
+
+        MemberManager memberManager = new MemberManager();
+        for (int i = 0; i < SEEDED_MEMBERS; i++) {
+            memberManager.registerNewMember("Seeded Member " + i, 20 + i, "Basic");
+        }
+        WorkoutManager workoutManager = new WorkoutManager(memberManager);
+
+        Map<Integer, AtomicInteger> recorded = new ConcurrentHashMap<>();
+        Set<Integer> deactivated = ConcurrentHashMap.newKeySet();
+        AtomicInteger registered = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int memberId = 1 + random.nextInt(SEEDED_MEMBERS);
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            memberManager.registerNewMember("Member " + thread + "-" + i, 30, "Premium");
+                            registered.incrementAndGet();
+                            break;
+                        case 1:
+                            memberManager.deactivateMember(memberId);
+                            deactivated.add(memberId);
+                            break;
+                        default:
+                            workoutManager.recordWorkout(memberId, EXERCISES[random.nextInt(EXERCISES.length)], 1 + random.nextInt(5));
+                            recorded.computeIfAbsent(memberId, id -> new AtomicInteger()).incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int expectedMembers = SEEDED_MEMBERS + registered.get();
+        int expectedWorkouts = recorded.values().stream().mapToInt(AtomicInteger::get).sum();
+        check(memberManager, workoutManager, expectedMembers, expectedWorkouts, recorded, deactivated);
+        workoutManager.close();
+        memberManager.close();
+
+        MemberManager reloadedMembers = new MemberManager();
+        WorkoutManager reloadedWorkouts = new WorkoutManager(reloadedMembers);
+        try {
+            check(reloadedMembers, reloadedWorkouts, expectedMembers, expectedWorkouts, recorded, deactivated);
+            // IDs carry on after the highest one on disk
+            reloadedMembers.registerNewMember("After Reload", 25, "Basic");
+            reloadedWorkouts.recordWorkout(1, "Squat", 3);
+            assertEquals(expectedMembers + 1, maxMemberId(reloadedMembers));
+            assertEquals(expectedWorkouts + 1, workoutIds(reloadedWorkouts, expectedMembers + 1).size());
+        } finally {
+            reloadedWorkouts.close();
+            reloadedMembers.close();
+        }
+    }
+
+    private static void check(MemberManager memberManager, WorkoutManager workoutManager, int expectedMembers,
+                              int expectedWorkouts, Map<Integer, AtomicInteger> recorded, Set<Integer> deactivated) {
+        List<Member> members = memberManager.getAllMembers();
+        Set<Integer> memberIds = new HashSet<>();
+        int inactive = 0;
+        for (Member member : members) {
+            assertTrue(memberIds.add(member.getId()), "duplicate member ID " + member.getId());
+            if ("Inactive".equals(member.getStatus())) {
+                inactive++;
+                assertTrue(deactivated.contains(member.getId()), "member " + member.getId() + " was never deactivated");
+            }
+        }
+        assertEquals(expectedMembers, members.size());
+        assertEquals(deactivated.size(), inactive);
+        // IDs are handed out without gaps, so the highest is the member count
+        assertEquals(expectedMembers, maxMemberId(memberManager));
+
+        for (int memberId = 1; memberId <= SEEDED_MEMBERS; memberId++) {
+            AtomicInteger count = recorded.get(memberId);
+            assertEquals(count == null ? 0 : count.get(), workoutManager.getWorkoutCount(memberId),
+                    "workouts of member " + memberId);
+        }
+        Set<Integer> workoutIds = workoutIds(workoutManager, expectedMembers);
+        assertEquals(expectedWorkouts, workoutIds.size());
+        assertFalse(workoutIds.contains(0));
+        assertEquals(expectedWorkouts, workoutIds.stream().mapToInt(Integer::intValue).max().orElse(0));
+    }
+
+    private static int maxMemberId(MemberManager memberManager) {
+        return memberManager.getAllMembers().stream().mapToInt(Member::getId).max().orElse(0);
+    }
+
+    // Fails on a workout ID that appears twice
+    private static Set<Integer> workoutIds(WorkoutManager workoutManager, int memberCount) {
+        Set<Integer> ids = new HashSet<>();
+        for (int memberId = 1; memberId <= memberCount; memberId++) {
+            for (Workout workout : workoutManager.getWorkoutsForMember(memberId)) {
+                assertTrue(ids.add(workout.getId()), "duplicate workout ID " + workout.getId());
+            }
+        }
+        return ids;
+    }
+}
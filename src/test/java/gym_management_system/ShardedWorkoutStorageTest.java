@@ -0,0 +1,127 @@
+package gym_management_system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// A shard changed behind the manifest's back is scanned when opening; whatever is cut off
+// there must not turn up again when a query loads the shard
+class ShardedWorkoutStorageTest {
+    private static final int WORKOUTS = 10;
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeEach
+    void useShardedLayout() {
+        System.setProperty("gym.data.dir", dataDir.toString());
+        System.setProperty("gym.workouts.layout", "sharded");
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("gym.data.dir");
+        System.clearProperty("gym.workouts.layout");
+    }
+
+    @Test
+    void tornRecordIsCutOff() throws IOException {
+        File shard = recordWorkouts();
+        long length = shard.length();
+        Files.write(shard.toPath(), "Workout ID: 11\nMember ID: 1\nExer".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        assertEquals(WORKOUTS, reopenAndRecordOne());
+        assertEquals(WORKOUTS + 1, reopen());
+        assertTrue(shard.length() > length);
+        assertEquals(0, backups().length);
+    }
+
+    @Test
+    void corruptRecordIsCutOffAndTheShardKept() throws IOException {
+        File shard = recordWorkouts();
+        String contents = new String(Files.readAllBytes(shard.toPath()), StandardCharsets.UTF_8);
+        // The fifth record; a longer line, so the length no longer matches the manifest
+        int fifth = contents.indexOf("Workout ID: 5\n");
+        int sets = contents.indexOf("Sets: ", fifth);
+        String damaged = contents.substring(0, sets) + "Sets: many" + contents.substring(contents.indexOf('\n', sets));
+        Files.write(shard.toPath(), damaged.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(4, reopenAndRecordOne());
+        assertEquals(5, reopen());
+        File[] backups = backups();
+        assertEquals(1, backups.length);
+        assertEquals(damaged, new String(Files.readAllBytes(backups[0].toPath()), StandardCharsets.UTF_8));
+    }
+
+    // Records WORKOUTS workouts for member 1, all in this month's shard, and returns that shard
+    private File recordWorkouts() {
+        MemberManager memberManager = new MemberManager();
+        memberManager.registerNewMember("Member", 30, "Basic");
+        WorkoutManager workoutManager = new WorkoutManager(memberManager);
+        try {
+            for (int i = 0; i < WORKOUTS; i++) {
+                workoutManager.recordWorkout(1, "Squat", 3);
+            }
+        } finally {
+            workoutManager.close();
+            memberManager.close();
+        }
+        File[] shards = dataDir.resolve("workouts").toFile().listFiles((dir, name) -> name.matches("m0-999_.*\\.txt"));
+        assertEquals(1, shards.length);
+        return shards[0];
+    }
+
+    // Returns member 1's workout count as first loaded
+    private int reopenAndRecordOne() {
+        MemberManager memberManager = new MemberManager();
+        WorkoutManager workoutManager = new WorkoutManager(memberManager);
+        try {
+            int count = workoutManager.getWorkoutCount(1);
+            workoutManager.recordWorkout(1, "Squat", 3);
+            assertEquals(count + 1, workoutIds(workoutManager).size());
+            return count;
+        } finally {
+            workoutManager.close();
+            memberManager.close();
+        }
+    }
+
+    private int reopen() {
+        MemberManager memberManager = new MemberManager();
+        WorkoutManager workoutManager = new WorkoutManager(memberManager);
+        try {
+            assertEquals(workoutManager.getWorkoutCount(1), workoutIds(workoutManager).size());
+            return workoutManager.getWorkoutCount(1);
+        } finally {
+            workoutManager.close();
+            memberManager.close();
+        }
+    }
+
+    // Fails on a workout ID that appears twice
+    private static Set<Integer> workoutIds(WorkoutManager workoutManager) {
+        Set<Integer> ids = new HashSet<>();
+        for (Workout workout : workoutManager.getWorkoutsForMember(1)) {
+            assertTrue(ids.add(workout.getId()), "duplicate workout ID " + workout.getId());
+        }
+        return ids;
+    }
+
+    private File[] backups() {
+        return dataDir.resolve("workouts").toFile().listFiles((dir, name) -> name.endsWith(".corrupt"));
+    }
+}
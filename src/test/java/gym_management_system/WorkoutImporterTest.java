@@ -0,0 +1,106 @@
+package gym_management_system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+// Exercise names are process-wide and keep their first spelling, so each test uses its own
+class WorkoutImporterTest {
+    private static final String TODAY = LocalDate.now().toString();
+
+    @Test
+    void csvQuotedFieldMayHoldCommas() {
+        Workout workout = WorkoutImporter.parseCsvLine("7,\"Cable, Fly\",3,2025-04-26");
+        assertEquals(7, workout.getMemberId());
+        assertEquals("Cable, Fly", workout.getExercise());
+        assertEquals(3, workout.getSets());
+        assertEquals("2025-04-26", workout.getDate());
+    }
+
+    @Test
+    void csvQuotesAreRemovedAndDoubledQuotesKept() {
+        assertEquals("Shrug", WorkoutImporter.parseCsvLine("7,\"Shrug\",2").getExercise());
+        assertEquals("The \"Crusher\"", WorkoutImporter.parseCsvLine("7, \"The \"\"Crusher\"\"\" ,2").getExercise());
+    }
+
+    @Test
+    void csvMalformedQuotingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,\"Open,2"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,\"Closed\"early,2"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,Stray\"Quote,2"));
+    }
+
+    @Test
+    void csvDateDefaultsToToday() {
+        assertEquals(TODAY, WorkoutImporter.parseCsvLine("7,Dip,2").getDate());
+        assertEquals(TODAY, WorkoutImporter.parseCsvLine("7,Dip,2,").getDate());
+    }
+
+    @Test
+    void csvBadFieldsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,Dip"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,Dip,2,2025-04-26,extra"));
+        IllegalArgumentException notNumber = assertThrows(IllegalArgumentException.class,
+                () -> WorkoutImporter.parseCsvLine("7,Dip,three"));
+        assertTrue(notNumber.getMessage().contains("sets"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,Dip,9"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,Dip,2,2025-13-01"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseCsvLine("7,Dip,2,26/04/2025"));
+    }
+
+    @Test
+    void jsonEscapesAreDecoded() {
+        Workout workout = WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Say \\\"Hi\\\"\\/\\\\ \\u0041\",\"sets\":1}");
+        assertEquals("Say \"Hi\"/\\ A", workout.getExercise());
+        assertEquals("Kick\bBack", WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Kick\\bBack\",\"sets\":1}").getExercise());
+        // Control characters, not the letters r and f; the catalog turns whitespace into spaces
+        assertEquals("Lunge Walk", WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Lunge\\rWalk\\f\",\"sets\":1}").getExercise());
+    }
+
+    @Test
+    void jsonInvalidEscapesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Bad\\qEscape\",\"sets\":1}"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Bad\\u00G1\",\"sets\":1}"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Short\\u00\",\"sets\":1}"));
+    }
+
+    @Test
+    void jsonNullIsTheSameAsAMissingKey() {
+        Workout workout = WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Plank\",\"sets\":2,\"date\":null}");
+        assertEquals(TODAY, workout.getDate());
+        assertEquals(TODAY, WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Plank\",\"sets\":2}").getDate());
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Plank\",\"sets\":null}"));
+        // Quoted, it is a name like any other
+        assertEquals("null", WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"null\",\"sets\":2}").getExercise());
+    }
+
+    @Test
+    void jsonBadFieldsAreRejected() {
+        assertEquals("2025-04-26", WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Burpee\",\"sets\":5,\"date\":\"2025-04-26\"}").getDate());
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Burpee\",\"sets\":2.5}"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Burpee\",\"sets\":0}"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Burpee\",\"sets\":2,\"date\":\"2025-02-30\"}"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "{\"memberId\":4,\"exercise\":\"Burpee\",\"sets\":2,\"date\":20250426}"));
+        assertThrows(IllegalArgumentException.class, () -> WorkoutImporter.parseJsonLine(
+                "[4,\"Burpee\",2]"));
+    }
+}
@@ -0,0 +1,110 @@
+package gym_management_system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// The workouts file is replaced by the same process that has just loaded it: when a
+// recovered journal is compacted at startup, and on every compaction after that
+class WorkoutRecoveryTest {
+    private static final int EPOCH_DAY = 20000;
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeEach
+    void useDataDir() {
+        System.setProperty("gym.data.dir", dataDir.toString());
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("gym.data.dir");
+    }
+
+    @Test
+    void recoveredJournalReplacesTheLoadedFile() throws IOException {
+        DataStorage.saveWorkouts(workouts(1, 100));
+        // An interrupted compaction: its journal overlaps the workouts file
+        writeJournal(WorkoutJournal.rotatedFile(), workouts(90, 120));
+        writeJournal(WorkoutJournal.file(), workouts(121, 130));
+
+        MemberManager memberManager = new MemberManager();
+        WorkoutManager workoutManager = new WorkoutManager(memberManager);
+        try {
+            assertEquals(130, workoutManager.getWorkoutCount(1));
+            assertFalse(WorkoutJournal.rotatedFile().exists());
+            assertEquals(0, WorkoutJournal.file().length());
+            assertEquals(130, DataStorage.loadWorkouts().size());
+        } finally {
+            workoutManager.close();
+            memberManager.close();
+        }
+    }
+
+    @Test
+    void compactionReplacesTheLoadedFile() {
+        DataStorage.saveWorkouts(workouts(1, 10));
+        MemberManager memberManager = new MemberManager();
+        memberManager.registerNewMember("Member", 30, "Basic");
+        WorkoutManager workoutManager = new WorkoutManager(memberManager);
+        try {
+            // Enough to pass the compaction threshold in one batch
+            workoutManager.recordWorkouts(workouts(1, 6000));
+            workoutManager.recordWorkout(1, "Squat", 3);
+        } finally {
+            // Waits for the compaction
+            workoutManager.close();
+            memberManager.close();
+        }
+        assertFalse(WorkoutJournal.rotatedFile().exists());
+        assertEquals(6010, DataStorage.loadWorkouts().size());
+
+        memberManager = new MemberManager();
+        workoutManager = new WorkoutManager(memberManager);
+        try {
+            assertEquals(6011, workoutManager.getWorkoutCount(1));
+        } finally {
+            workoutManager.close();
+            memberManager.close();
+        }
+    }
+
+    @Test
+    void loadedWorkoutsOutliveTheFile() {
+        DataStorage.saveWorkouts(workouts(1, 50));
+        List<Workout> loaded = DataStorage.loadWorkouts();
+        assertTrue(DataStorage.saveWorkoutsAtomically(workouts(1, 5)));
+        assertEquals(50, loaded.size());
+        assertEquals(50, loaded.get(49).getId());
+        assertEquals(EPOCH_DAY, loaded.get(49).getEpochDay());
+        assertEquals(5, DataStorage.loadWorkouts().size());
+    }
+
+    private static List<Workout> workouts(int fromId, int toId) {
+        List<Workout> workouts = new ArrayList<>();
+        for (int id = fromId; id <= toId; id++) {
+            workouts.add(new Workout(id, 1, ExerciseCatalog.idOf("Squat"), 3, EPOCH_DAY));
+        }
+        return workouts;
+    }
+
+    private static void writeJournal(File file, List<Workout> workouts) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            new TextStorageCodec().writeWorkouts(workouts, out);
+        }
+    }
+}